@@ -1,83 +1,147 @@
 package org.chequePrinter;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import org.chequePrinter.service.BankTemplateRegistry;
 import org.chequePrinter.service.DatabaseService;
+import org.chequePrinter.service.PdfGenerator;
+import org.chequePrinter.util.ArabicNumberToWords;
 import org.chequePrinter.util.ExceptionHandler;
+import org.chequePrinter.util.InMemoryLogAppender;
 import org.chequePrinter.util.LogCleanupService;
 import org.chequePrinter.util.LoggerUtil;
+import org.chequePrinter.util.StartupTimings;
 import org.slf4j.Logger;
 import javafx.scene.control.Alert;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.prefs.Preferences;
 
+/**
+ * Application entry point. The window is shown at once with a placeholder while the
+ * startup phases (log maintenance, database, templates, text warm-up) run concurrently;
+ * the main view is loaded as soon as the database and templates are ready and the cheques
+ * are then loaded in the background. StartupTimings logs the time taken by each phase.
+ */
 public class App extends Application {
     
     private static final Logger logger = LoggerUtil.getLogger(App.class);
     private static final String REGISTRY_PATH = "org/chequePrinter";
     private static final String LICENSE_KEY = "licenseText";
     private static final String EXPECTED_LICENSE_TEXT = "Ayman&Paula"; // IMPORTANT: Replace with your actual license text
+    private static final int STARTUP_THREADS = 4;
 
     @Override
-    public void start(Stage stage) throws IOException {
+    public void start(Stage stage) {
+        StartupTimings.begin();
+
         // Setup global exception handler
         ExceptionHandler.setupGlobalExceptionHandler();
+
+        // Start mirroring log events into the log viewer now that the JavaFX toolkit is running
+        InMemoryLogAppender.onFxStarted();
         
         // Create logs directory if it doesn't exist
         createLogsDirectory();
         
-        // Perform automatic log cleanup (delete logs older than 7 days)
-        LogCleanupService.performStartupCleanup();
-        
         // Log application startup
         logger.info("=== Cheque Printer Application Starting ===");
         logger.info("Java Version: {}", System.getProperty("java.version"));
         logger.info("JavaFX Version: {}", System.getProperty("javafx.version"));
         logger.info("Operating System: {} {}", System.getProperty("os.name"), System.getProperty("os.version"));
         
-        // Log current logs directory status
-        LogCleanupService.LogsInfo logsInfo = LogCleanupService.getLogsInfo();
-        logger.info("Logs directory status: {}", logsInfo.toString());
-        
         // Perform license check
-        if (!checkLicense()) {
+        if (!StartupTimings.time("license", App::checkLicense)) {
             showAlert("License Invalid", "This copy is not authorized for this machine. Please contact support.");
             logger.error("License check failed. Exiting application.");
             System.exit(0); // Exit if license check fails
         }
 
+        // Show the window right away; the main view replaces the placeholder when it is ready
+        setupStage(stage);
+        stage.show();
+
+        // Independent phases run concurrently; the main view needs the database and templates
+        ExecutorService startup = Executors.newFixedThreadPool(STARTUP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runPhase("log_maintenance", App::maintainLogs, startup);
+        CompletableFuture<Void> database = runPhase("database", DatabaseService::initializeDatabase, startup);
+        CompletableFuture<Void> templates = runPhase("templates", App::loadTemplates, startup);
+        runPhase("text_warmup", App::warmUpText, startup);
+        startup.shutdown();
+
+        CompletableFuture.allOf(database, templates).whenComplete((result, error) -> {
+            if (error != null) {
+                // Already reported by runPhase; the main view still opens so the user can act on it
+                logger.warn("Opening the main view after a failed startup phase");
+            }
+            Platform.runLater(() -> showMainView(stage));
+        });
+    }
+
+    /**
+     * Run a startup phase on the startup pool, timing it and reporting a failure to the user.
+     */
+    private static CompletableFuture<Void> runPhase(String phase, Runnable work, ExecutorService executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                StartupTimings.run(phase, work);
+            } catch (RuntimeException e) {
+                ExceptionHandler.handleException(logger, "startup_" + phase, e,
+                        "Startup step '" + phase + "' failed: " + e.getMessage());
+                throw e;
+            }
+        }, executor);
+    }
+
+    private void setupStage(Stage stage) {
+        ProgressIndicator progress = new ProgressIndicator();
+        VBox placeholder = new VBox(12, progress, new Label("Loading Cheque Printer..."));
+        placeholder.setAlignment(Pos.CENTER);
+
+        stage.setScene(new Scene(placeholder));
+        stage.setTitle("Cheque Printer - Production Ready");
+        stage.setWidth(1024);
+        stage.setHeight(768);
+        stage.setMinWidth(800);
+        stage.setMinHeight(600);
+        stage.setResizable(true);
+        
+        // Handle window close event
+        stage.setOnCloseRequest(event -> {
+            logger.info("Application shutdown requested by user");
+            logger.info("=== Cheque Printer Application Shutting Down ===");
+        });
+    }
+
+    private void showMainView(Stage stage) {
         try {
-            // Initialize database
-            LoggerUtil.logOperationStart(logger, "database_initialization");
-            DatabaseService.initializeDatabase();
-            LoggerUtil.logOperationSuccess(logger, "database_initialization");
-            
             // Load main UI
             LoggerUtil.logOperationStart(logger, "ui_initialization");
-            Parent root = FXMLLoader.load(getClass().getResource("/org/chequePrinter/view/ChequeView.fxml"));
-            Scene scene = new Scene(root);
-            
-            // Setup stage
-            stage.setScene(scene);
-            stage.setTitle("Cheque Printer - Production Ready");
-            stage.setWidth(1024);
-            stage.setHeight(768);
-            stage.setMinWidth(800);
-            stage.setMinHeight(600);
-            stage.setResizable(true);
-            
-            // Handle window close event
-            stage.setOnCloseRequest(event -> {
-                logger.info("Application shutdown requested by user");
-                logger.info("=== Cheque Printer Application Shutting Down ===");
+            Parent root = StartupTimings.time("ui", () -> {
+                try {
+                    return FXMLLoader.<Parent>load(getClass().getResource("/org/chequePrinter/view/ChequeView.fxml"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             });
-            
-            stage.show();
+            stage.getScene().setRoot(root);
             LoggerUtil.logOperationSuccess(logger, "ui_initialization");
             
             logger.info("Application started successfully");
@@ -85,11 +149,40 @@ public class App extends Application {
         } catch (Exception e) {
             ExceptionHandler.handleException(logger, "application_startup", e,
                 "Failed to start the application. Please check the logs for details.");
-            throw e;
+            Platform.exit();
         }
     }
+
+    /**
+     * Delete logs older than 7 days and log the state of the logs directory.
+     */
+    private static void maintainLogs() {
+        LogCleanupService.performStartupCleanup();
+        LogCleanupService.LogsInfo logsInfo = LogCleanupService.getLogsInfo();
+        logger.info("Logs directory status: {}", logsInfo.toString());
+    }
+
+    /**
+     * Parse (or read the compiled) bank templates, so the views find them cached.
+     */
+    private static void loadTemplates() {
+        try {
+            BankTemplateRegistry.getBankTemplates("/bank.json");
+        } catch (IOException e) {
+            // The template views report the error when they load the templates
+            logger.warn("Could not load bank templates at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load the Arabic shaping data and the amount-in-words tables used on the first cheque.
+     */
+    private static void warmUpText() {
+        PdfGenerator.warmUp();
+        ArabicNumberToWords.convert("1234.56");
+    }
     
-    private boolean checkLicense() {
+    static boolean checkLicense() {
         Preferences prefs = Preferences.userRoot().node(REGISTRY_PATH);
         String storedLicenseText = prefs.get(LICENSE_KEY, null);
         
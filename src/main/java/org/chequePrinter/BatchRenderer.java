@@ -0,0 +1,378 @@
+package org.chequePrinter;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.chequePrinter.controller.ChequePrintController;
+import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.service.DatabaseService;
+import org.chequePrinter.service.PdfService;
+import org.chequePrinter.service.PrintJob;
+import org.chequePrinter.service.PrintQueueService;
+import org.chequePrinter.service.VirtualPrinter;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.ArabicNumberToWords;
+import org.chequePrinter.util.ChequeDates;
+import org.chequePrinter.util.JsonLoader;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Headless batch entry point: renders cheques from a CSV file with a bank.json template
+ * and writes PDFs, prints and/or saves the records, without starting JavaFX.
+ *
+ * Usage: java -jar cheque-printer.jar batch --template NAME --csv FILE [options]
+ */
+public class BatchRenderer {
+
+    private static final Logger logger = LoggerUtil.getLogger(BatchRenderer.class);
+
+    static final String COMMAND = "batch";
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+
+    // CSV columns, named as in the Excel export ("ID" is ignored when present)
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_BENEFICIARY = "beneficiary";
+    private static final String COLUMN_AMOUNT = "amount";
+    private static final String COLUMN_AMOUNT_WORDS = "amount in words";
+    private static final String COLUMN_SIGNER = "signer";
+    private static final String COLUMN_PHONE = "phone number";
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: batch --template NAME --csv FILE [options]",
+            "  --template NAME   template name from bank.json (or \"Bank/Template\")",
+            "  --csv FILE        UTF-8 CSV with header: Date,Beneficiary,Amount,Amount in Words,Signer,Phone Number",
+            "                    (Amount in Words, Signer and Phone Number are optional)",
+            "  --out DIR         output directory for PDFs (default: current directory)",
+            "  --split           write one PDF per cheque instead of one PDF for the whole file",
+            "  --imposed         lay cheques out N-up on A4 sheets (see print.imposition.* settings)",
+            "  --print           print through the print queue on the stored printer profile,",
+            "                    or on the virtual printer with -Dprint.target=file",
+            "  --save            save the cheques to the database",
+            "  --no-pdf          do not write PDFs (use with --print or --save)");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Run a batch and return the process exit code.
+     */
+    public static int run(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (!App.checkLicense()) {
+            System.err.println("This copy is not authorized for this machine. Please contact support.");
+            return EXIT_FAILED;
+        }
+
+        long start = System.nanoTime();
+        try {
+            BankTemplate.Template template = findTemplate(options.templateName);
+            List<ChequeData> cheques = readCsv(options.csvFile);
+            logger.info("Batch: {} cheque(s) from {} with template {}", cheques.size(), options.csvFile, template.getTemplateName());
+
+            int files = 0;
+            if (options.writePdf && !cheques.isEmpty()) {
+                files = writePdfs(template, cheques, options);
+            }
+
+            if (options.print && !cheques.isEmpty() && !print(template, cheques)) {
+                return EXIT_FAILED;
+            }
+
+            if (options.save && !cheques.isEmpty()) {
+                DatabaseService.initializeDatabase();
+                if (!DatabaseService.saveCheques(cheques)) {
+                    System.err.println("Failed to save cheques to the database, see the logs for details.");
+                    return EXIT_FAILED;
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf(Locale.ROOT, "Processed %d cheque(s), wrote %d PDF file(s)%s in %.2f s (%.1f cheques/s)%n",
+                    cheques.size(), files, options.save ? ", saved to database" : "", seconds,
+                    seconds > 0 ? cheques.size() / seconds : 0.0);
+            return EXIT_OK;
+        } catch (Exception e) {
+            LoggerUtil.logException(logger, "batch_render", e);
+            System.err.println("Batch failed: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private static BankTemplate.Template findTemplate(String name) throws IOException {
+        String bankName = null;
+        String templateName = name;
+        int slash = name.indexOf('/');
+        if (slash > 0) {
+            bankName = name.substring(0, slash).trim();
+            templateName = name.substring(slash + 1).trim();
+        }
+
+        List<BankTemplate> banks = JsonLoader.loadBankTemplates(AppConfig.getString("bank.json.path", "/bank.json"));
+        for (BankTemplate bank : banks) {
+            if (bankName != null && !bankName.equalsIgnoreCase(bank.getName())) {
+                continue;
+            }
+            for (BankTemplate.Template template : bank.getTemplates()) {
+                if (templateName.equalsIgnoreCase(template.getTemplateName())) {
+                    return template;
+                }
+            }
+        }
+        throw new IOException("Template not found in bank.json: " + name);
+    }
+
+    private static List<ChequeData> readCsv(File csvFile) throws IOException {
+        List<ChequeData> cheques = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return cheques;
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> header = parseCsvLine(headerLine);
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : new String[]{COLUMN_DATE, COLUMN_BENEFICIARY, COLUMN_AMOUNT}) {
+                if (!columns.containsKey(required)) {
+                    throw new IOException("CSV header is missing column '" + required + "'");
+                }
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                List<String> values = parseCsvLine(line);
+                String amount = value(values, columns, COLUMN_AMOUNT);
+                String amountWords = value(values, columns, COLUMN_AMOUNT_WORDS);
+                try {
+                    // Validates the amount even when the words are given
+                    String convertedWords = ArabicNumberToWords.convert(amount);
+                    if (amountWords.isEmpty()) {
+                        amountWords = convertedWords;
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid amount '" + amount + "' on line " + lineNumber);
+                }
+                String phoneNumber = value(values, columns, COLUMN_PHONE);
+                String dateText = value(values, columns, COLUMN_DATE);
+                LocalDate date = ChequeDates.parse(dateText);
+                if (date == null) {
+                    throw new IOException("Invalid date '" + dateText + "' on line " + lineNumber);
+                }
+
+                cheques.add(new ChequeData(
+                        date,
+                        value(values, columns, COLUMN_BENEFICIARY),
+                        amount,
+                        amountWords,
+                        value(values, columns, COLUMN_SIGNER),
+                        phoneNumber.isEmpty() ? null : phoneNumber));
+            }
+        }
+        return cheques;
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return "";
+        }
+        return values.get(index).trim();
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields with "" escapes.
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int writePdfs(BankTemplate.Template template, List<ChequeData> cheques, Options options) throws IOException {
+        if (!options.outputDir.isDirectory() && !options.outputDir.mkdirs()) {
+            throw new IOException("Cannot create output directory: " + options.outputDir.getAbsolutePath());
+        }
+
+        String baseName = options.csvFile.getName().replaceFirst("\\.[^.]*$", "");
+        if (!options.split) {
+            writePdf(template, cheques, options, new File(options.outputDir, baseName + ".pdf"));
+            return 1;
+        }
+
+        for (int i = 0; i < cheques.size(); i++) {
+            List<ChequeData> single = new ArrayList<>();
+            single.add(cheques.get(i));
+            writePdf(template, single, options, new File(options.outputDir, String.format("%s_%04d.pdf", baseName, i + 1)));
+        }
+        return cheques.size();
+    }
+
+    private static void writePdf(BankTemplate.Template template, List<ChequeData> cheques, Options options, File file) throws IOException {
+        PDDocument document = options.imposed
+                ? PdfService.createImposedChequePdf(template, cheques,
+                        AppConfig.getInt("print.imposition.perSheet", 3), AppConfig.getBoolean("print.imposition.cutMarks", true))
+                : PdfService.createChequePdf(template, cheques);
+        try {
+            document.save(file);
+        } finally {
+            document.close();
+        }
+        logger.info("Batch PDF written: {}", file.getAbsolutePath());
+    }
+
+    /**
+     * Queue the cheques as one print job and wait for it to finish.
+     */
+    private static boolean print(BankTemplate.Template template, List<ChequeData> cheques) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        PrintJob job = new ChequePrintController().printCheques(cheques, template, null);
+        Consumer<PrintJob> listener = updated -> {
+            if (updated == job && updated.getStatus().isFinished()) {
+                finished.countDown();
+            }
+        };
+        PrintQueueService.addListener(listener);
+        try {
+            // The job may already have finished before the listener was added
+            if (!job.getStatus().isFinished()) {
+                finished.await();
+            }
+        } finally {
+            PrintQueueService.removeListener(listener);
+        }
+
+        if (!job.isSuccessful()) {
+            System.err.println("Printing " + job.getStatus().toString().toLowerCase(Locale.ROOT) + ": " + job.getMessage());
+            return false;
+        }
+        System.out.println("Printed " + job.getTotalPages() + " page(s)"
+                + (VirtualPrinter.isEnabled() ? " to " + VirtualPrinter.getDirectory() + ": " + VirtualPrinter.summary() : ""));
+        return true;
+    }
+
+    /**
+     * Parsed command line options.
+     */
+    private static class Options {
+        String templateName;
+        File csvFile;
+        File outputDir = new File(".");
+        boolean split;
+        boolean imposed;
+        boolean print;
+        boolean save;
+        boolean writePdf = true;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--template":
+                        options.templateName = requireValue(args, ++i, "--template");
+                        break;
+                    case "--csv":
+                        options.csvFile = new File(requireValue(args, ++i, "--csv"));
+                        break;
+                    case "--out":
+                        options.outputDir = new File(requireValue(args, ++i, "--out"));
+                        break;
+                    case "--split":
+                        options.split = true;
+                        break;
+                    case "--imposed":
+                        options.imposed = true;
+                        break;
+                    case "--print":
+                        options.print = true;
+                        break;
+                    case "--save":
+                        options.save = true;
+                        break;
+                    case "--no-pdf":
+                        options.writePdf = false;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+
+            if (options.templateName == null || options.csvFile == null) {
+                throw new IllegalArgumentException("Both --template and --csv are required");
+            }
+            if (!options.csvFile.isFile()) {
+                throw new IllegalArgumentException("CSV file not found: " + options.csvFile);
+            }
+            if (!options.writePdf && !options.print && !options.save) {
+                throw new IllegalArgumentException("Nothing to do: --no-pdf without --print or --save");
+            }
+            return options;
+        }
+
+        private static String requireValue(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+    }
+}
@@ -2,6 +2,10 @@ package org.chequePrinter;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && BatchRenderer.COMMAND.equals(args[0])) {
+            // Headless batch mode, JavaFX is never started
+            System.exit(BatchRenderer.run(java.util.Arrays.copyOfRange(args, 1, args.length)));
+        }
         App.main(args);
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,18 @@
 package org.chequePrinter.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.service.BankTemplateRegistry;
 import org.chequePrinter.util.JsonLoader;
+import org.chequePrinter.util.TemplateImageCache;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class BankTemplateController {
 
@@ -22,6 +27,55 @@ public class BankTemplateController {
     public void initialize() {
         loadBankConfiguration();
         setupUI();
+        preloadTemplateImages();
+
+        // Edits to the user bank.json apply without a restart
+        BankTemplateRegistry.addListener(() -> Platform.runLater(this::applyChangedTemplates));
+        BankTemplateRegistry.startWatching();
+    }
+
+    /**
+     * Show the reloaded templates, keeping the selected bank and template when they still exist.
+     */
+    private void applyChangedTemplates() {
+        BankTemplate selectedBank = bankComboBox.getValue();
+        BankTemplate.Template selectedTemplate = templateComboBox.getValue();
+        loadBankConfiguration();
+        if (bankTemplates == null || bankTemplates.isEmpty()) {
+            return;
+        }
+        bankComboBox.setItems(FXCollections.observableArrayList(bankTemplates));
+
+        BankTemplate bank = selectedBank != null ? getBankByName(selectedBank.getName()) : null;
+        if (bank == null) {
+            bank = bankTemplates.get(0);
+        }
+        bankComboBox.setValue(bank);
+        templateComboBox.setItems(FXCollections.observableArrayList(bank.getTemplates()));
+        BankTemplate.Template template = selectedTemplate != null
+                ? getTemplateByName(bank.getName(), selectedTemplate.getTemplateName()) : null;
+        setSelectedTemplate(template != null ? template : bank.getTemplates().get(0));
+        preloadTemplateImages();
+    }
+
+    /**
+     * Decode the images of all templates in the background, so switching banks is instant.
+     */
+    private void preloadTemplateImages() {
+        if (bankTemplates == null) {
+            return;
+        }
+        Set<String> imagePaths = new LinkedHashSet<>();
+        for (BankTemplate bank : bankTemplates) {
+            if (bank.getTemplates() != null) {
+                for (BankTemplate.Template template : bank.getTemplates()) {
+                    if (template.getImagePath() != null) {
+                        imagePaths.add(template.getImagePath());
+                    }
+                }
+            }
+        }
+        TemplateImageCache.preload(imagePaths);
     }
 
     private void loadBankConfiguration() {
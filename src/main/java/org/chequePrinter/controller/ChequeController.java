@@ -9,6 +9,7 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.chequePrinter.model.BankTemplate;
 import org.chequePrinter.model.ChequeData;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class ChequeController {
@@ -32,7 +33,7 @@ public class ChequeController {
 
     @FXML private TableView<ChequeData> chequeTableView;
     @FXML private TableColumn<ChequeData, Integer> idColumn;
-    @FXML private TableColumn<ChequeData, String> dateColumn;
+    @FXML private TableColumn<ChequeData, LocalDate> dateColumn;
     @FXML private TableColumn<ChequeData, String> beneficiaryColumn;
     @FXML private TableColumn<ChequeData, String> amountNumericColumn;
     @FXML private TableColumn<ChequeData, String> amountWordsColumn;
@@ -1,21 +1,26 @@
 package org.chequePrinter.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.chequePrinter.model.BankTemplate;
 import org.chequePrinter.model.ChequeData;
 import org.chequePrinter.service.DatabaseService;
+import org.chequePrinter.service.PrintJob;
 import org.chequePrinter.util.ArabicNumberToWords;
+import org.chequePrinter.util.ChequeDates;
+import org.chequePrinter.util.StartupTimings;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class ChequeDataController {
 
@@ -24,7 +29,7 @@ public class ChequeDataController {
     @FXML
     private TableColumn<ChequeData, Integer> idColumn;
     @FXML
-    private TableColumn<ChequeData, String> dateColumn;
+    private TableColumn<ChequeData, LocalDate> dateColumn;
     @FXML
     private TableColumn<ChequeData, String> beneficiaryColumn;
     @FXML
@@ -40,7 +45,7 @@ public class ChequeDataController {
     @FXML
     private TableView<ChequeData> multiChequeTableView;
     @FXML
-    private TableColumn<ChequeData, String> multiDateColumn;
+    private TableColumn<ChequeData, LocalDate> multiDateColumn;
     @FXML
     private TableColumn<ChequeData, String> multiBeneficiaryColumn;
     @FXML
@@ -55,10 +60,11 @@ public class ChequeDataController {
     private TableColumn<ChequeData, Void> multiActionColumn;
 
     private ObservableList<ChequeData> chequeDataList = FXCollections.observableArrayList();
+    // The table shows the loaded cheques through one filter and the table's own sort order
+    private final FilteredList<ChequeData> filteredChequeList = new FilteredList<>(chequeDataList);
+    private final SortedList<ChequeData> sortedChequeList = new SortedList<>(filteredChequeList);
     private ObservableList<ChequeData> multiChequeDataList = FXCollections.observableArrayList();
-    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private final DateTimeFormatter dbDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
+    private boolean chequeRecordsLoaded;
     // Callback interfaces for communication with other controllers
     private Runnable onChequeSelected;
     private ChequePrintController printController;
@@ -67,31 +73,31 @@ public class ChequeDataController {
     public void initialize() {
         setupTableView();
         setupMultiChequeTableView();
-        loadChequeRecords();
+        loadChequeRecordsInBackground();
     }
 
     private void setupTableView() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
-        beneficiaryColumn.setCellValueFactory(new PropertyValueFactory<>("beneficiaryName"));
-        amountNumericColumn.setCellValueFactory(new PropertyValueFactory<>("amountNumeric"));
-        amountWordsColumn.setCellValueFactory(new PropertyValueFactory<>("amountWords"));
-        signerColumn.setCellValueFactory(new PropertyValueFactory<>("signerName"));
-        phoneNumberColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
-
-        dateColumn.setCellFactory(column -> new TableCell<ChequeData, String>() {
+        // Cells observe the cheque properties directly, so an edit repaints only the cells of the changed field
+        idColumn.setCellValueFactory(cellData -> cellData.getValue().idProperty().asObject());
+        // Sorted by the date itself; shown with the display text cached on the cheque, so
+        // scrolling does no date formatting
+        dateColumn.setCellValueFactory(cellData -> cellData.getValue().dateProperty());
+        dateColumn.setCellFactory(column -> new TableCell<ChequeData, LocalDate>() {
             @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (item == null || empty) {
-                    setText(null);
-                } else {
-                    setText(LocalDate.parse(item, dbDateFormatter).format(dateFormatter));
-                }
+            protected void updateItem(LocalDate date, boolean empty) {
+                super.updateItem(date, empty);
+                ChequeData cheque = empty ? null : getTableRow().getItem();
+                setText(cheque != null ? cheque.getDateText(ChequeDates.DISPLAY_FORMAT) : null);
             }
         });
+        beneficiaryColumn.setCellValueFactory(cellData -> cellData.getValue().beneficiaryNameProperty());
+        amountNumericColumn.setCellValueFactory(cellData -> cellData.getValue().amountNumericProperty());
+        amountWordsColumn.setCellValueFactory(cellData -> cellData.getValue().amountWordsProperty());
+        signerColumn.setCellValueFactory(cellData -> cellData.getValue().signerNameProperty());
+        phoneNumberColumn.setCellValueFactory(cellData -> cellData.getValue().phoneNumberProperty());
 
-        chequeTableView.setItems(chequeDataList);
+        sortedChequeList.comparatorProperty().bind(chequeTableView.comparatorProperty());
+        chequeTableView.setItems(sortedChequeList);
 
         // Enable multiple selection
         chequeTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
@@ -112,12 +118,12 @@ public class ChequeDataController {
 
     private void setupMultiChequeTableView() {
         // Setup cell value factories
-        multiDateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
-        multiBeneficiaryColumn.setCellValueFactory(new PropertyValueFactory<>("beneficiaryName"));
-        multiAmountColumn.setCellValueFactory(new PropertyValueFactory<>("amountNumeric"));
-        multiAmountWordsColumn.setCellValueFactory(new PropertyValueFactory<>("amountWords"));
-        multiSignerColumn.setCellValueFactory(new PropertyValueFactory<>("signerName"));
-        multiPhoneNumberColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
+        multiDateColumn.setCellValueFactory(cellData -> cellData.getValue().dateProperty());
+        multiBeneficiaryColumn.setCellValueFactory(cellData -> cellData.getValue().beneficiaryNameProperty());
+        multiAmountColumn.setCellValueFactory(cellData -> cellData.getValue().amountNumericProperty());
+        multiAmountWordsColumn.setCellValueFactory(cellData -> cellData.getValue().amountWordsProperty());
+        multiSignerColumn.setCellValueFactory(cellData -> cellData.getValue().signerNameProperty());
+        multiPhoneNumberColumn.setCellValueFactory(cellData -> cellData.getValue().phoneNumberProperty());
 
         // Make table editable
         multiChequeTableView.setEditable(true);
@@ -126,26 +132,17 @@ public class ChequeDataController {
         multiDateColumn.setCellFactory(column -> new DatePickerTableCell());
         multiDateColumn.setOnEditCommit(event -> {
             ChequeData cheque = event.getRowValue();
-            String newDate = event.getNewValue();
+            LocalDate newDate = event.getNewValue();
             
-            // Since DatePicker ensures valid dates, we can directly use the value
-            try {
-                LocalDate parsedDate = parseDate(newDate);
-                String formattedDate = parsedDate.format(dbDateFormatter); // Store in yyyy-MM-dd format
-                cheque.setDate(formattedDate);
+            // The DatePicker only commits valid dates
+            if (newDate != null) {
+                cheque.setDate(newDate);
                 
                 // Update preview only if this is the currently selected row
                 ChequeData selectedCheque = multiChequeTableView.getSelectionModel().getSelectedItem();
                 if (selectedCheque != null && selectedCheque == cheque) {
                     updatePreviewFromTable(cheque);
                 }
-                
-                // Refresh the table to show the updated date
-                multiChequeTableView.refresh();
-            } catch (Exception e) {
-                // This should rarely happen with DatePicker, but handle gracefully
-                System.err.println("Error updating date: " + e.getMessage());
-                multiChequeTableView.refresh();
             }
         });
 
@@ -203,14 +200,14 @@ public class ChequeDataController {
                 textField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
                     if (!isNowFocused && !isCommitting[0]) {
                         isCommitting[0] = true;
-                        commitEdit(textField.getText());
+                        commitIfValid(textField.getText());
                     }
                 });
                 
                 textField.setOnAction(evt -> {
                     if (!isCommitting[0]) {
                         isCommitting[0] = true;
-                        commitEdit(textField.getText());
+                        commitIfValid(textField.getText());
                     }
                 });
                 
@@ -221,6 +218,18 @@ public class ChequeDataController {
                 });
             }
             
+            /**
+             * Commit a valid amount (without decimals); otherwise keep the old value and explain why.
+             */
+            private void commitIfValid(String amountText) {
+                if (isValidAmount(amountText)) {
+                    commitEdit(formatAmountAsInteger(amountText));
+                } else {
+                    cancelEdit();
+                    showAlert("Invalid Amount", "Please enter a valid positive integer amount only.\nDecimals like 50.0 or 50.01 are not allowed.\nExample: 100, 250, 1000");
+                }
+            }
+            
             private String formatAmountDisplay(String amount) {
                 if (amount == null || amount.trim().isEmpty()) {
                     return "";
@@ -239,36 +248,22 @@ public class ChequeDataController {
             }
         });
         multiAmountColumn.setOnEditCommit(event -> {
+            // The cell only commits valid amounts, already without decimals
             ChequeData cheque = event.getRowValue();
-            String newAmount = event.getNewValue();
+            String cleanAmount = event.getNewValue();
+            cheque.setAmountNumeric(cleanAmount);
             
-            // Validate amount
-            if (isValidAmount(newAmount)) {
-                // Convert to integer format (remove decimal points like .0)
-                String cleanAmount = formatAmountAsInteger(newAmount);
-                cheque.setAmountNumeric(cleanAmount);
-                
-                // Update amount in words for this specific cheque only
-                try {
-                    double amount = Double.parseDouble(cleanAmount);
-                    String words = ArabicNumberToWords.convert(amount);
-                    cheque.setAmountWords(words);
-                } catch (NumberFormatException e) {
-                    cheque.setAmountWords("");
-                }
-                
-                // Update preview only if this is the currently selected row
-                ChequeData selectedCheque = multiChequeTableView.getSelectionModel().getSelectedItem();
-                if (selectedCheque != null && selectedCheque == cheque) {
-                    updatePreviewFromTable(cheque);
-                }
-                
-                // Refresh the table to show the updated amount and words
-                multiChequeTableView.refresh();
-            } else {
-                showAlert("Invalid Amount", "Please enter a valid positive integer amount only.\nDecimals like 50.0 or 50.01 are not allowed.\nExample: 100, 250, 1000");
-                // Revert to original value - no need to refresh as the edit will be cancelled automatically
-                multiChequeTableView.refresh();
+            // Update amount in words for this specific cheque only; its cell repaints through the property
+            try {
+                cheque.setAmountWords(ArabicNumberToWords.convert(cleanAmount));
+            } catch (IllegalArgumentException e) {
+                cheque.setAmountWords("");
+            }
+            
+            // Update preview only if this is the currently selected row
+            ChequeData selectedCheque = multiChequeTableView.getSelectionModel().getSelectedItem();
+            if (selectedCheque != null && selectedCheque == cheque) {
+                updatePreviewFromTable(cheque);
             }
         });
 
@@ -304,14 +299,33 @@ public class ChequeDataController {
     }
 
     public void loadChequeRecords() {
+        chequeRecordsLoaded = true;
         chequeDataList.clear();
         chequeDataList.addAll(DatabaseService.getAllCheques());
     }
 
+    /**
+     * Load the cheques without blocking the UI; the table fills in when they arrive,
+     * unless the records have been reloaded in the meantime.
+     */
+    private void loadChequeRecordsInBackground() {
+        Thread loader = new Thread(() -> {
+            List<ChequeData> cheques = StartupTimings.time("initial_cheques", DatabaseService::getAllCheques);
+            Platform.runLater(() -> {
+                if (!chequeRecordsLoaded) {
+                    chequeRecordsLoaded = true;
+                    chequeDataList.setAll(cheques);
+                }
+                StartupTimings.markInteractive();
+            });
+        }, "cheque-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
     public void saveCheque(ChequeData chequeData) {
-        // Convert date format for database storage
         ChequeData chequeToSave = new ChequeData(
-            parseDate(chequeData.getDate()).format(dbDateFormatter),
+            chequeData.getDate() != null ? chequeData.getDate() : LocalDate.now(),
             chequeData.getBeneficiaryName(),
             chequeData.getAmountNumeric(),
             chequeData.getAmountWords(),
@@ -357,12 +371,12 @@ public class ChequeDataController {
     @FXML
     public void generateMultipleChecks(ChequeData baseData, int numChecks, String interval) {
         try {
-            LocalDate currentDate = parseDate(baseData.getDate());
+            LocalDate currentDate = baseData.getDate() != null ? baseData.getDate() : LocalDate.now();
             multiChequeDataList.clear();
             
             for (int i = 0; i < numChecks; i++) {
                 ChequeData chequeData = new ChequeData();
-                chequeData.setDate(currentDate.toString());
+                chequeData.setDate(currentDate);
                 chequeData.setBeneficiaryName(baseData.getBeneficiaryName());
                 chequeData.setAmountNumeric(baseData.getAmountNumeric());
                 chequeData.setAmountWords(baseData.getAmountWords());
@@ -419,23 +433,22 @@ public class ChequeDataController {
                 // Convert ObservableList to regular List
                 List<ChequeData> chequeList = new ArrayList<>(multiChequeDataList);
 
-                // Generate single PDF with multiple pages (one page per cheque)
-                PDDocument document = printController.generateMultipleChequePDF(chequeList, selectedTemplate);
-                
-                // Print the entire PDF as one document
-                boolean printSuccessful = printController.printPDF(document, selectedTemplate.getWidth(), selectedTemplate.getHeight());
-                
-                if (printSuccessful) {
-                    // Save all cheques to database only after successful printing
-                    saveCheques(chequeList);
-                    
-                    // Refresh the main table to show the newly saved records
-                    loadChequeRecords();
-                    
-                    showAlert("Success", chequeList.size() + " cheques printed as one PDF document and saved to database!");
-                } else {
-                    showAlert("Print Cancelled", "Print job was cancelled. The " + chequeList.size() + " cheques were not saved to the database.");
-                }
+                // Queue all cheques as one print job (one per page, or N-up on A4); the window stays usable while it prints
+                printController.printCheques(chequeList, selectedTemplate, job -> {
+                    if (job.isSuccessful()) {
+                        // Save all cheques to database only after successful printing
+                        saveCheques(chequeList);
+                        
+                        // Refresh the main table to show the newly saved records
+                        loadChequeRecords();
+                        
+                        showAlert("Success", chequeList.size() + " cheques printed as one PDF document and saved to database!");
+                    } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
+                        showAlert("Print Cancelled", "Print job was cancelled. The " + chequeList.size() + " cheques were not saved to the database.");
+                    } else {
+                        showAlert("Error", "Failed to print cheques: " + job.getMessage());
+                    }
+                });
                 
             } catch (Exception e) {
                 showAlert("Error", "Failed to print cheques: " + e.getMessage());
@@ -472,22 +485,21 @@ public class ChequeDataController {
                 // Convert ObservableList to regular List
                 List<ChequeData> chequeList = new ArrayList<>(selectedCheques);
 
-                // Generate single PDF with multiple pages (one page per cheque)
-                PDDocument document = printController.generateMultipleChequePDF(chequeList, selectedTemplate);
-                
-                // Print the entire PDF as one document
-                boolean printSuccessful = printController.printPDF(document, selectedTemplate.getWidth(), selectedTemplate.getHeight());
-                
-                if (printSuccessful) {
-                    // Note: These cheques are already in the database (from the main table)
-                    // But if they were edited in the multi-cheque table, we should update them
-                    // For now, we'll just refresh the table to ensure consistency
-                    loadChequeRecords();
-                    
-                    showAlert("Success", chequeList.size() + " cheques from table printed as one PDF document!");
-                } else {
-                    showAlert("Print Cancelled", "Print job was cancelled.");
-                }
+                // Queue all cheques as one print job (one per page, or N-up on A4)
+                printController.printCheques(chequeList, selectedTemplate, job -> {
+                    if (job.isSuccessful()) {
+                        // Note: These cheques are already in the database (from the main table)
+                        // But if they were edited in the multi-cheque table, we should update them
+                        // For now, we'll just refresh the table to ensure consistency
+                        loadChequeRecords();
+                        
+                        showAlert("Success", chequeList.size() + " cheques from table printed as one PDF document!");
+                    } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
+                        showAlert("Print Cancelled", "Print job was cancelled.");
+                    } else {
+                        showAlert("Error", "Failed to print cheques from table: " + job.getMessage());
+                    }
+                });
                 
             } catch (Exception e) {
                 showAlert("Error", "Failed to print cheques from table: " + e.getMessage());
@@ -508,15 +520,16 @@ public class ChequeDataController {
                     return;
                 }
 
-                // Generate PDF and print
-                PDDocument document = printController.generateChequePDF(cheque, selectedTemplate);
-                boolean printSuccessful = printController.printPDF(document, selectedTemplate.getWidth(), selectedTemplate.getHeight());
-                
-                if (printSuccessful) {
-                    showAlert("Success", "Cheque printed successfully!");
-                } else {
-                    showAlert("Print Cancelled", "Print job was cancelled.");
-                }
+                // Queue the cheque for printing
+                printController.printCheque(cheque, selectedTemplate, job -> {
+                    if (job.isSuccessful()) {
+                        showAlert("Success", "Cheque printed successfully!");
+                    } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
+                        showAlert("Print Cancelled", "Print job was cancelled.");
+                    } else {
+                        showAlert("Error", "Failed to print cheque: " + job.getMessage());
+                    }
+                });
                 
             } catch (Exception e) {
                 showAlert("Error", "Failed to print cheque: " + e.getMessage());
@@ -551,124 +564,15 @@ public class ChequeDataController {
         return multiChequeDataList;
     }
 
-    public void setFilteredItems(ObservableList<ChequeData> filteredItems) {
-        chequeTableView.setItems(filteredItems);
+    /**
+     * Show only the cheques matching the predicate (all cheques for null).
+     */
+    public void setFilter(Predicate<ChequeData> predicate) {
+        filteredChequeList.setPredicate(predicate);
     }
 
     public void resetToAllItems() {
-        chequeTableView.setItems(chequeDataList);
-    }
-
-    private LocalDate parseDate(String dateText) {
-        if (dateText == null || dateText.trim().isEmpty()) {
-            return LocalDate.now();
-        }
-        
-        // Clean up the input - remove any non-printable characters, extra spaces, and unwanted characters
-        String cleanedDate = dateText.trim()
-                .replaceAll("[^\\d/\\-]", "") // Remove any character that's not a digit, slash, or dash
-                .replaceAll("\\s+", ""); // Remove any whitespace
-        
-        if (cleanedDate.isEmpty()) {
-            return LocalDate.now();
-        }
-        
-        try {
-            // Try parsing with ISO format first (yyyy-MM-dd)
-            if (cleanedDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                return LocalDate.parse(cleanedDate);
-            }
-            
-            // Try parsing with dd/MM/yyyy format
-            if (cleanedDate.matches("\\d{2}/\\d{2}/\\d{4}")) {
-                return LocalDate.parse(cleanedDate, dateFormatter);
-            }
-            
-            // Try parsing with yyyy/MM/dd format
-            if (cleanedDate.matches("\\d{4}/\\d{2}/\\d{2}")) {
-                return LocalDate.parse(cleanedDate.replace('/', '-'));
-            }
-            
-            // Try parsing with dd-MM-yyyy format
-            if (cleanedDate.matches("\\d{2}-\\d{2}-\\d{4}")) {
-                String[] parts = cleanedDate.split("-");
-                return LocalDate.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
-            }
-            
-            // Try parsing with yyyy-MM-dd format (database format)
-            if (cleanedDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                return LocalDate.parse(cleanedDate, dbDateFormatter);
-            }
-            
-            // Default fallback - try ISO format
-            return LocalDate.parse(cleanedDate);
-            
-        } catch (Exception e) {
-            // Only log if the cleaned date is different from original (to avoid spam)
-            if (!cleanedDate.equals(dateText.trim())) {
-                System.err.println("Cleaned date input from '" + dateText + "' to '" + cleanedDate + "'");
-            }
-            System.err.println("Failed to parse date: " + cleanedDate + ", using current date instead");
-            return LocalDate.now();
-        }
-    }
-
-    private boolean isValidDate(String dateText) {
-        if (dateText == null || dateText.trim().isEmpty()) {
-            return false;
-        }
-        
-        // Clean up the input first
-        String cleanedDate = dateText.trim()
-                .replaceAll("[^\\d/\\-]", "") // Remove any character that's not a digit, slash, or dash
-                .replaceAll("\\s+", ""); // Remove any whitespace
-        
-        if (cleanedDate.isEmpty()) {
-            return false;
-        }
-        
-        try {
-            // Validate date format patterns without calling parseDate to avoid multiple logging
-            LocalDate parsedDate = null;
-            
-            // Try parsing with ISO format first (yyyy-MM-dd)
-            if (cleanedDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                parsedDate = LocalDate.parse(cleanedDate);
-            }
-            // Try parsing with dd/MM/yyyy format
-            else if (cleanedDate.matches("\\d{2}/\\d{2}/\\d{4}")) {
-                parsedDate = LocalDate.parse(cleanedDate, dateFormatter);
-            }
-            // Try parsing with yyyy/MM/dd format
-            else if (cleanedDate.matches("\\d{4}/\\d{2}/\\d{2}")) {
-                parsedDate = LocalDate.parse(cleanedDate.replace('/', '-'));
-            }
-            // Try parsing with dd-MM-yyyy format
-            else if (cleanedDate.matches("\\d{2}-\\d{2}-\\d{4}")) {
-                String[] parts = cleanedDate.split("-");
-                parsedDate = LocalDate.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
-            }
-            else {
-                return false; // No valid pattern matched
-            }
-            
-            if (parsedDate == null) {
-                return false;
-            }
-            
-            // Additional validation: ensure date is not too far in the past or future
-            LocalDate now = LocalDate.now();
-            LocalDate minDate = now.minusYears(10); // 10 years ago
-            LocalDate maxDate = now.plusYears(10);  // 10 years in future
-            
-            if (parsedDate.isBefore(minDate) || parsedDate.isAfter(maxDate)) {
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        setFilter(null);
     }
 
     private boolean isValidAmount(String amountText) {
@@ -749,9 +653,8 @@ public class ChequeDataController {
     public TableView<ChequeData> getMultiChequeTableView() { return multiChequeTableView; }
 
     // Custom TableCell for DatePicker date input
-    private class DatePickerTableCell extends TableCell<ChequeData, String> {
+    private class DatePickerTableCell extends TableCell<ChequeData, LocalDate> {
         private DatePicker datePicker;
-        private String originalValue;
 
         public DatePickerTableCell() {
             super();
@@ -761,7 +664,6 @@ public class ChequeDataController {
         public void startEdit() {
             if (!isEmpty()) {
                 super.startEdit();
-                originalValue = getItem(); // Store original value before editing
                 createDatePicker();
                 setText(null);
                 setGraphic(datePicker);
@@ -772,13 +674,13 @@ public class ChequeDataController {
         @Override
         public void cancelEdit() {
             super.cancelEdit();
-            // Revert to original value display format
-            setText(getDisplayText(originalValue));
+            // Back to the committed value
+            setText(getDisplayText());
             setGraphic(null);
         }
 
         @Override
-        public void updateItem(String item, boolean empty) {
+        public void updateItem(LocalDate item, boolean empty) {
             super.updateItem(item, empty);
 
             if (empty) {
@@ -787,42 +689,28 @@ public class ChequeDataController {
             } else {
                 if (isEditing()) {
                     if (datePicker != null) {
-                        LocalDate date = parseDate(getItem());
-                        datePicker.setValue(date);
+                        datePicker.setValue(item != null ? item : LocalDate.now());
                     }
                     setText(null);
                     setGraphic(datePicker);
                 } else {
-                    setText(getDisplayText(item));
+                    setText(getDisplayText());
                     setGraphic(null);
                 }
             }
         }
 
-        private String getDisplayText(String dateValue) {
-            if (dateValue == null || dateValue.isEmpty()) {
-                return "";
-            }
-            
-            try {
-                LocalDate date = parseDate(dateValue);
-                return date.format(dateFormatter);
-            } catch (Exception e) {
-                // If parsing fails for display, just return the original value
-                return dateValue;
-            }
+        private String getDisplayText() {
+            // Cached on the cheque of this row
+            ChequeData cheque = getTableRow() != null ? getTableRow().getItem() : null;
+            return cheque != null ? cheque.getDateText(ChequeDates.DISPLAY_FORMAT) : ChequeDates.toDisplay(getItem());
         }
 
         private void createDatePicker() {
             datePicker = new DatePicker();
             
             // Set initial value
-            try {
-                LocalDate currentDate = parseDate(getItem());
-                datePicker.setValue(currentDate);
-            } catch (Exception e) {
-                datePicker.setValue(LocalDate.now());
-            }
+            datePicker.setValue(getItem() != null ? getItem() : LocalDate.now());
             
             // Set reasonable date range (10 years back and forward)
             LocalDate now = LocalDate.now();
@@ -839,9 +727,7 @@ public class ChequeDataController {
             // Handle value changes
             datePicker.valueProperty().addListener((obs, oldDate, newDate) -> {
                 if (newDate != null) {
-                    // Convert to database format and commit
-                    String formattedDate = newDate.format(dbDateFormatter);
-                    commitEdit(formattedDate);
+                    commitEdit(newDate);
                 }
             });
             
@@ -850,8 +736,7 @@ public class ChequeDataController {
                 if (!isNowFocused && isEditing()) {
                     LocalDate selectedDate = datePicker.getValue();
                     if (selectedDate != null) {
-                        String formattedDate = selectedDate.format(dbDateFormatter);
-                        commitEdit(formattedDate);
+                        commitEdit(selectedDate);
                     } else {
                         cancelEdit();
                     }
@@ -862,8 +747,7 @@ public class ChequeDataController {
             datePicker.setOnAction(evt -> {
                 LocalDate selectedDate = datePicker.getValue();
                 if (selectedDate != null) {
-                    String formattedDate = selectedDate.format(dbDateFormatter);
-                    commitEdit(formattedDate);
+                    commitEdit(selectedDate);
                 } else {
                     cancelEdit();
                 }
@@ -877,4 +761,4 @@ public class ChequeDataController {
             });
         }
     }
-}
\ No newline at end of file
+}
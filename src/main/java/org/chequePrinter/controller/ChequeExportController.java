@@ -8,6 +8,7 @@ import javafx.stage.Stage;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.util.ChequeDates;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -101,7 +102,7 @@ public class ChequeExportController {
             for (ChequeData cheque : cheques) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(cheque.getId());
-                row.createCell(1).setCellValue(cheque.getDate());
+                row.createCell(1).setCellValue(cheque.getDateText(ChequeDates.ISO_FORMAT));
                 row.createCell(2).setCellValue(cheque.getBeneficiaryName());
                 row.createCell(3).setCellValue(cheque.getAmountNumeric());
                 row.createCell(4).setCellValue(cheque.getAmountWords());
@@ -173,7 +174,7 @@ public class ChequeExportController {
             for (ChequeData cheque : cheques) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(cheque.getId());
-                row.createCell(1).setCellValue(cheque.getDate());
+                row.createCell(1).setCellValue(cheque.getDateText(ChequeDates.ISO_FORMAT));
                 row.createCell(2).setCellValue(cheque.getBeneficiaryName());
                 row.createCell(3).setCellValue(cheque.getAmountNumeric());
                 row.createCell(4).setCellValue(cheque.getAmountWords());
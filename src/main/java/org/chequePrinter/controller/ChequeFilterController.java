@@ -1,17 +1,41 @@
 package org.chequePrinter.controller;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.service.ChequeSearchIndex;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.SearchText;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Filters the cheque table by signer name, phone number and date range.
+ *
+ * Typing is debounced (filter.debounceMs) and the filter is applied to the single
+ * FilteredList of the data controller, so sorting and selection survive. Search keys are
+ * normalized once per cheque and names and phone numbers are looked up in a trigram index;
+ * when a query only extends the previous one (more characters, a narrower date range) just
+ * the previous matches are checked.
+ */
 public class ChequeFilterController {
 
+    private static final String DEBOUNCE_KEY = "filter.debounceMs";
+
     @FXML
     private TextField filterBeneficiaryField;
     @FXML
@@ -21,17 +45,26 @@ public class ChequeFilterController {
     @FXML
     private DatePicker endDatePicker;
 
-    private final DateTimeFormatter dbDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private ChequeDataController dataController;
 
+    private final ChequeSearchIndex searchIndex = new ChequeSearchIndex();
+    private PauseTransition debounce;
+    // The query currently applied and the cheques it matched (null once the cheques change)
+    private Query appliedQuery;
+    private List<ChequeData> appliedMatches;
+    private boolean reapplyPending;
+
     public void initialize() {
         setupEventHandlers();
     }
 
     private void setupEventHandlers() {
-        // Setup filtering listeners
-        filterBeneficiaryField.textProperty().addListener((obs, oldVal, newVal) -> applyDateFilter());
-        filterPhoneNumberField.textProperty().addListener((obs, oldVal, newVal) -> applyDateFilter());
+        debounce = new PauseTransition(Duration.millis(Math.max(0, AppConfig.getInt(DEBOUNCE_KEY, 150))));
+        debounce.setOnFinished(event -> applyDateFilter());
+
+        // Setup filtering listeners: typing waits for a pause, picked dates apply at once
+        filterBeneficiaryField.textProperty().addListener((obs, oldVal, newVal) -> debounce.playFromStart());
+        filterPhoneNumberField.textProperty().addListener((obs, oldVal, newVal) -> debounce.playFromStart());
         startDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> applyDateFilter());
         endDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> applyDateFilter());
     }
@@ -39,125 +72,112 @@ public class ChequeFilterController {
     @FXML
     public void applyDateFilter() {
         if (dataController == null) return;
+        debounce.stop();
+
+        Query query = currentQuery();
+        if (query.isEmpty()) {
+            appliedQuery = null;
+            appliedMatches = null;
+            dataController.setFilter(null);
+            return;
+        }
+        if (query.equals(appliedQuery) && appliedMatches != null) {
+            return;
+        }
 
-        // Get the current filter values
-        String beneficiaryFilter = filterBeneficiaryField.getText();
-        String phoneNumberFilter = filterPhoneNumberField.getText();
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
-
-        // Create a filtered list based on the original data
-        FilteredList<ChequeData> filteredData = new FilteredList<>(dataController.getAllCheques());
-
-        // Apply filters
-        filteredData.setPredicate(cheque -> {
-            // Filter by beneficiary name if provided
-            if (beneficiaryFilter != null && !beneficiaryFilter.isEmpty()) {
-                if (!cheque.getSignerName().toLowerCase().contains(beneficiaryFilter.toLowerCase())) {
-                    return false;
-                }
-            }
-
-            // Filter by phone number if provided
-            if (phoneNumberFilter != null && !phoneNumberFilter.isEmpty()) {
-                String chequePhone = cheque.getPhoneNumber();
-                if (chequePhone == null || !chequePhone.toLowerCase().contains(phoneNumberFilter.toLowerCase())) {
-                    return false;
-                }
+        List<ChequeData> matches = new ArrayList<>();
+        for (ChequeData cheque : candidates(query)) {
+            if (query.matches(searchIndex.keys(cheque), cheque)) {
+                matches.add(cheque);
             }
-
-            // Filter by date range if provided
-            if (startDate != null || endDate != null) {
-                try {
-                    LocalDate chequeDate = LocalDate.parse(cheque.getDate(), dbDateFormatter);
-                    if (startDate != null && chequeDate.isBefore(startDate)) {
-                        return false;
-                    }
-                    if (endDate != null && chequeDate.isAfter(endDate)) {
-                        return false;
-                    }
-                } catch (Exception e) {
-                    // If date parsing fails, try alternative format
-                    try {
-                        LocalDate chequeDate = LocalDate.parse(cheque.getDate());
-                        if (startDate != null && chequeDate.isBefore(startDate)) {
-                            return false;
-                        }
-                        if (endDate != null && chequeDate.isAfter(endDate)) {
-                            return false;
-                        }
-                    } catch (Exception ex) {
-                        // If both parsing attempts fail, exclude this record
-                        return false;
-                    }
-                }
+        }
+        appliedQuery = query;
+        appliedMatches = matches;
+
+        Set<ChequeData> matchSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        matchSet.addAll(matches);
+        long indexedUpTo = searchIndex.getLastSequence();
+        dataController.setFilter(cheque -> {
+            if (matchSet.contains(cheque)) {
+                return true;
             }
-
-            return true;
+            // Cheques added after the matches were computed are checked directly
+            ChequeSearchIndex.Keys keys = searchIndex.keys(cheque);
+            return keys.getSequence() > indexedUpTo && query.matches(keys, cheque);
         });
+    }
 
-        // Apply the filtered list to the table
-        dataController.setFilteredItems(filteredData);
+    /**
+     * The smallest set of cheques known to contain every match: the previous matches when
+     * the query extends the previous one, the trigram index hits for a name or phone number
+     * of three or more characters, or otherwise all cheques.
+     */
+    private Collection<ChequeData> candidates(Query query) {
+        Collection<ChequeData> candidates = dataController.getAllCheques();
+        // An extended query can only match a subset of what the previous one matched
+        if (appliedMatches != null && query.narrows(appliedQuery)) {
+            candidates = appliedMatches;
+        }
+        if (!query.signerName.isEmpty()) {
+            candidates = smaller(candidates, searchIndex.findBySignerName(query.signerName));
+        }
+        if (!query.phoneNumber.isEmpty()) {
+            candidates = smaller(candidates, searchIndex.findByPhoneNumber(query.phoneNumber));
+        }
+        return candidates;
     }
 
-    public FilteredList<ChequeData> applyFilterToList(ObservableList<ChequeData> sourceList) {
-        // Get the current filter values
-        String beneficiaryFilter = filterBeneficiaryField.getText();
-        String phoneNumberFilter = filterPhoneNumberField.getText();
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
+    private static Collection<ChequeData> smaller(Collection<ChequeData> current, List<ChequeData> indexed) {
+        return indexed != null && indexed.size() < current.size() ? indexed : current;
+    }
 
-        // Create a filtered list based on the provided data
+    public FilteredList<ChequeData> applyFilterToList(ObservableList<ChequeData> sourceList) {
+        Query query = currentQuery();
         FilteredList<ChequeData> filteredData = new FilteredList<>(sourceList);
+        if (!query.isEmpty()) {
+            filteredData.setPredicate(cheque -> query.matches(searchIndex.keys(cheque), cheque));
+        }
+        return filteredData;
+    }
 
-        // Apply filters
-        filteredData.setPredicate(cheque -> {
-            // Filter by beneficiary name if provided
-            if (beneficiaryFilter != null && !beneficiaryFilter.isEmpty()) {
-                if (!cheque.getSignerName().toLowerCase().contains(beneficiaryFilter.toLowerCase())) {
-                    return false;
-                }
-            }
-
-            // Filter by phone number if provided
-            if (phoneNumberFilter != null && !phoneNumberFilter.isEmpty()) {
-                String chequePhone = cheque.getPhoneNumber();
-                if (chequePhone == null || !chequePhone.toLowerCase().contains(phoneNumberFilter.toLowerCase())) {
-                    return false;
-                }
-            }
+    private Query currentQuery() {
+        return new Query(SearchText.normalize(filterBeneficiaryField.getText()),
+                SearchText.normalize(filterPhoneNumberField.getText()),
+                startDatePicker.getValue(), endDatePicker.getValue());
+    }
 
-            // Filter by date range if provided
-            if (startDate != null || endDate != null) {
-                try {
-                    LocalDate chequeDate = LocalDate.parse(cheque.getDate(), dbDateFormatter);
-                    if (startDate != null && chequeDate.isBefore(startDate)) {
-                        return false;
-                    }
-                    if (endDate != null && chequeDate.isAfter(endDate)) {
-                        return false;
-                    }
-                } catch (Exception e) {
-                    // If date parsing fails, try alternative format
-                    try {
-                        LocalDate chequeDate = LocalDate.parse(cheque.getDate());
-                        if (startDate != null && chequeDate.isBefore(startDate)) {
-                            return false;
-                        }
-                        if (endDate != null && chequeDate.isAfter(endDate)) {
-                            return false;
-                        }
-                    } catch (Exception ex) {
-                        // If both parsing attempts fail, exclude this record
-                        return false;
+    /**
+     * Keep the search keys in step with the loaded cheques, and re-run an active filter
+     * once the cheques have changed.
+     */
+    private void trackCheques(ObservableList<ChequeData> cheques) {
+        for (ChequeData cheque : cheques) {
+            searchIndex.add(cheque);
+        }
+        cheques.addListener((ListChangeListener<ChequeData>) change -> {
+            while (change.next()) {
+                if (change.getRemovedSize() > 0 && change.getRemovedSize() >= searchIndex.size()) {
+                    // Every indexed cheque went (clear, setAll): start over instead of removing one by one
+                    searchIndex.clear();
+                } else {
+                    for (ChequeData removed : change.getRemoved()) {
+                        searchIndex.remove(removed);
                     }
                 }
+                for (ChequeData added : change.getAddedSubList()) {
+                    searchIndex.add(added);
+                }
+            }
+            searchIndex.compact();
+            appliedMatches = null;
+            if (appliedQuery != null && !reapplyPending) {
+                reapplyPending = true;
+                Platform.runLater(() -> {
+                    reapplyPending = false;
+                    applyDateFilter();
+                });
             }
-
-            return true;
         });
-
-        return filteredData;
     }
 
     @FXML
@@ -166,6 +186,9 @@ public class ChequeFilterController {
         filterPhoneNumberField.clear();
         startDatePicker.setValue(null);
         endDatePicker.setValue(null);
+        debounce.stop();
+        appliedQuery = null;
+        appliedMatches = null;
         
         if (dataController != null) {
             dataController.resetToAllItems();
@@ -214,6 +237,7 @@ public class ChequeFilterController {
     // Dependency injection
     public void setDataController(ChequeDataController dataController) {
         this.dataController = dataController;
+        trackCheques(dataController.getAllCheques());
     }
 
     // Getters for UI components
@@ -221,4 +245,75 @@ public class ChequeFilterController {
     public TextField getFilterPhoneNumberField() { return filterPhoneNumberField; }
     public DatePicker getStartDatePicker() { return startDatePicker; }
     public DatePicker getEndDatePicker() { return endDatePicker; }
-}
\ No newline at end of file
+
+    /**
+     * The normalized filter values.
+     */
+    private static class Query {
+        private final String signerName;
+        private final String phoneNumber;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        Query(String signerName, String phoneNumber, LocalDate startDate, LocalDate endDate) {
+            this.signerName = signerName;
+            this.phoneNumber = phoneNumber;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        boolean isEmpty() {
+            return signerName.isEmpty() && phoneNumber.isEmpty() && startDate == null && endDate == null;
+        }
+
+        /**
+         * True when everything this query matches was also matched by the previous one.
+         */
+        boolean narrows(Query previous) {
+            return previous != null
+                    && signerName.contains(previous.signerName)
+                    && phoneNumber.contains(previous.phoneNumber)
+                    && (previous.startDate == null || (startDate != null && !startDate.isBefore(previous.startDate)))
+                    && (previous.endDate == null || (endDate != null && !endDate.isAfter(previous.endDate)));
+        }
+
+        boolean matches(ChequeSearchIndex.Keys keys, ChequeData cheque) {
+            // The "beneficiary" filter field searches the signer name
+            if (!signerName.isEmpty() && !keys.getSignerName().contains(signerName)) {
+                return false;
+            }
+            if (!phoneNumber.isEmpty() && !keys.getPhoneNumber().contains(phoneNumber)) {
+                return false;
+            }
+            if (startDate != null || endDate != null) {
+                LocalDate chequeDate = cheque.getDate();
+                if (chequeDate == null) {
+                    // Records without a valid date are excluded
+                    return false;
+                }
+                if (startDate != null && chequeDate.isBefore(startDate)) {
+                    return false;
+                }
+                if (endDate != null && chequeDate.isAfter(endDate)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Query)) {
+                return false;
+            }
+            Query query = (Query) other;
+            return signerName.equals(query.signerName) && phoneNumber.equals(query.phoneNumber)
+                    && Objects.equals(startDate, query.startDate) && Objects.equals(endDate, query.endDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(signerName, phoneNumber, startDate, endDate);
+        }
+    }
+}
@@ -50,20 +50,19 @@ public class ChequeFormController {
         try {
             String amountStr = amountField.getText();
             if (amountStr != null && !amountStr.trim().isEmpty()) {
-                double amount = Double.parseDouble(amountStr);
-                String words = ArabicNumberToWords.convert(amount);
-                amountWordsField.setText(words);
+                amountWordsField.setText(ArabicNumberToWords.convert(amountStr));
             } else {
                 amountWordsField.clear();
             }
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
+            // Not a number, negative or out of range
             amountWordsField.clear();
         }
     }
 
     public ChequeData createChequeData() {
         ChequeData chequeData = new ChequeData();
-        chequeData.setDate(firstCheckDatePicker.getValue().toString());
+        chequeData.setDate(firstCheckDatePicker.getValue());
         chequeData.setBeneficiaryName(beneficiaryField.getText());
         chequeData.setAmountNumeric(amountField.getText());
         chequeData.setAmountWords(amountWordsField.getText());
@@ -73,11 +72,7 @@ public class ChequeFormController {
     }
 
     public void populateForm(ChequeData chequeData) {
-        try {
-            firstCheckDatePicker.setValue(LocalDate.parse(chequeData.getDate()));
-        } catch (Exception e) {
-            firstCheckDatePicker.setValue(LocalDate.now());
-        }
+        firstCheckDatePicker.setValue(chequeData.getDate() != null ? chequeData.getDate() : LocalDate.now());
         beneficiaryField.setText(chequeData.getBeneficiaryName());
         amountField.setText(chequeData.getAmountNumeric());
         amountWordsField.setText(chequeData.getAmountWords());
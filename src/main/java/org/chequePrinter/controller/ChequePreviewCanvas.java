@@ -0,0 +1,142 @@
+package org.chequePrinter.controller;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import org.chequePrinter.model.PdfContent;
+import org.chequePrinter.service.PdfGenerator;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws the cheque preview into a single canvas: the template image and the texts of the
+ * render plan used for the PDF, at the positions and sizes they print at.
+ *
+ * The template image is scaled to the canvas size once and kept until the size or the
+ * image changes, so redrawing while typing only copies pixels.
+ */
+public class ChequePreviewCanvas extends Canvas {
+
+    private static final String FONT_PATH = "Amiri-Regular.ttf";
+    private static final String[] SYSTEM_FONTS = {
+            "C:/Windows/Fonts/arialuni.ttf", "C:/Windows/Fonts/arial.ttf", "C:/Windows/Fonts/tahoma.ttf"};
+
+    private Image templateImage;
+    private Image scaledImage;
+    private final String fontFamily = loadFontFamily();
+    private final Map<Integer, Font> fonts = new HashMap<>();
+
+    public void setTemplateImage(Image image) {
+        templateImage = image;
+        scaledImage = null;
+    }
+
+    /**
+     * Size the canvas to the largest cheque of the page's proportions that fits the pane.
+     */
+    public void fitTo(double paneWidth, double paneHeight, float pageWidth, float pageHeight) {
+        double scale = Math.min(paneWidth / pageWidth, paneHeight / pageHeight);
+        if (!(scale > 0)) {
+            scale = 0;
+        }
+        setWidth(Math.floor(pageWidth * scale));
+        setHeight(Math.floor(pageHeight * scale));
+    }
+
+    /**
+     * Draw a cheque page of the given size in points.
+     */
+    public void draw(float pageWidth, float pageHeight, List<PdfContent> sharedContent, List<PdfContent> content) {
+        GraphicsContext g = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        g.clearRect(0, 0, width, height);
+        if (width < 1 || height < 1) {
+            return;
+        }
+
+        Image background = scaledTemplateImage((int) width, (int) height);
+        if (background != null) {
+            g.drawImage(background, 0, 0);
+        } else {
+            g.setFill(Color.LIGHTGRAY);
+            g.fillRect(0, 0, width, height);
+        }
+
+        // Points to pixels; PDF y grows upwards from the bottom of the page
+        double scale = width / pageWidth;
+        g.setFill(Color.BLACK);
+        drawContents(g, sharedContent, scale, pageHeight);
+        drawContents(g, content, scale, pageHeight);
+    }
+
+    private void drawContents(GraphicsContext g, List<PdfContent> contents, double scale, float pageHeight) {
+        if (contents == null) {
+            return;
+        }
+        for (PdfContent item : contents) {
+            String text = PdfGenerator.formatText(item);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            // Arabic is shaped and ordered by the JavaFX text layout
+            g.setFont(fontForSize(item.fontSize * scale));
+            g.fillText(text, item.x * scale, (pageHeight - item.y) * scale);
+        }
+    }
+
+    private Image scaledTemplateImage(int width, int height) {
+        if (templateImage == null || templateImage.isError()) {
+            return null;
+        }
+        if (scaledImage == null || (int) scaledImage.getWidth() != width || (int) scaledImage.getHeight() != height) {
+            Canvas scratch = new Canvas(width, height);
+            scratch.getGraphicsContext2D().setImageSmoothing(true);
+            scratch.getGraphicsContext2D().drawImage(templateImage, 0, 0, width, height);
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            scaledImage = scratch.snapshot(parameters, new WritableImage(width, height));
+        }
+        return scaledImage;
+    }
+
+    private Font fontForSize(double size) {
+        int tenths = (int) Math.round(Math.max(size, 0.1) * 10);
+        return fonts.computeIfAbsent(tenths, key -> Font.font(fontFamily, key / 10.0));
+    }
+
+    /**
+     * Register the font the PDF is printed with, in the same order of preference, and
+     * return its family; the default family when none can be loaded.
+     */
+    private static String loadFontFamily() {
+        for (String path : SYSTEM_FONTS) {
+            File fontFile = new File(path);
+            if (fontFile.isFile()) {
+                Font font = Font.loadFont(fontFile.toURI().toString(), 12);
+                if (font != null) {
+                    return font.getFamily();
+                }
+            }
+        }
+        try (InputStream fontStream = ChequePreviewCanvas.class.getClassLoader().getResourceAsStream(FONT_PATH)) {
+            if (fontStream != null) {
+                Font font = Font.loadFont(fontStream, 12);
+                if (font != null) {
+                    return font.getFamily();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not load preview font " + FONT_PATH + ": " + e.getMessage());
+        }
+        return Font.getDefault().getFamily();
+    }
+}
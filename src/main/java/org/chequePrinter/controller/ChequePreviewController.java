@@ -1,22 +1,41 @@
 package org.chequePrinter.controller;
 
+import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.model.PdfContent;
+import org.chequePrinter.service.PdfService;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.ChequeDates;
 import org.chequePrinter.util.JsonLoader;
+import org.chequePrinter.util.TemplateImageCache;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Shows the cheque template with the form values laid out as they will print.
+ *
+ * Typing and resizing can ask for many updates per frame; they only record the latest
+ * values and the preview is laid out once on the next animation pulse.
+ *
+ * With preview.renderer=canvas the preview is drawn into one canvas from the PDF render
+ * plan instead of an image view with text nodes on top.
+ */
 public class ChequePreviewController {
 
+    private static final String RENDERER_KEY = "preview.renderer";
+
     @FXML
     private Pane previewPane;
     @FXML
@@ -34,7 +53,30 @@ public class ChequePreviewController {
 
     private BankTemplate bankTemplate;
     private BankTemplate.Template selectedTemplate;
-    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Set when preview.renderer=canvas; replaces the image view and text nodes
+    private ChequePreviewCanvas previewCanvas;
+
+    // Fonts by size in tenths of a pixel; used on the FX thread only
+    private static final Map<Integer, Font> fonts = new HashMap<>();
+
+    // Latest values to show; applied on the next pulse
+    private LocalDate pendingDate;
+    private String pendingDateText;
+    private String pendingBeneficiary;
+    private String pendingAmountWords;
+    private String pendingAmount;
+    private String pendingSigner;
+    private boolean hasPendingData;
+    private boolean renderScheduled;
+
+    private final AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            renderScheduled = false;
+            render();
+        }
+    };
 
     public void initialize() {
         loadBankTemplate();
@@ -60,41 +102,47 @@ public class ChequePreviewController {
     private void loadTemplateImage() {
         if (selectedTemplate != null) {
             String imagePath = selectedTemplate.getImagePath();
-            if (imagePath == null || getClass().getResourceAsStream(imagePath) == null) {
+            Image image = TemplateImageCache.get(imagePath);
+            if (image == null) {
                 showAlert("Error", "Cheque image not found at: " + imagePath + ".\nPlease make sure the image exists.");
                 previewPane.setStyle("-fx-background-color: lightgray;");
                 return;
             }
-            Image image = new Image(getClass().getResourceAsStream(imagePath));
             if (image.isError()) {
                 showAlert("Error", "Failed to load cheque image. It may be corrupt or in an unsupported format.");
                 previewPane.setStyle("-fx-background-color: lightgray;");
             } else {
-                chequeImageView.setImage(image);
+                showTemplateImage(image);
             }
         }
     }
 
     public void loadTemplateImageForBank(BankTemplate.Template template) {
-        try {
-            if (template != null && template.getImagePath() != null) {
-                InputStream imageStream = getClass().getResourceAsStream(template.getImagePath());
-                if (imageStream != null) {
-                    Image image = new Image(imageStream);
-                    chequeImageView.setImage(image);
-                    imageStream.close();
-                    selectedTemplate = template;
-                    System.out.println("Loaded template image: " + template.getImagePath());
-                } else {
-                    System.err.println("Template image not found: " + template.getImagePath());
-                }
+        if (template != null && template.getImagePath() != null) {
+            Image image = TemplateImageCache.get(template.getImagePath());
+            if (image != null && !image.isError()) {
+                showTemplateImage(image);
+                selectedTemplate = template;
+                System.out.println("Loaded template image: " + template.getImagePath());
+            } else {
+                System.err.println("Template image not found: " + template.getImagePath());
             }
-        } catch (Exception e) {
-            System.err.println("Error loading template image: " + e.getMessage());
+        }
+    }
+
+    private void showTemplateImage(Image image) {
+        chequeImageView.setImage(image);
+        if (previewCanvas != null) {
+            previewCanvas.setTemplateImage(image);
+            updatePreview();
         }
     }
 
     private void setupUI() {
+        if (previewPane != null && "canvas".equalsIgnoreCase(AppConfig.getString(RENDERER_KEY, "nodes"))) {
+            setupCanvas();
+            return;
+        }
         if (chequeImageView != null && previewPane != null) {
             chequeImageView.fitWidthProperty().bind(previewPane.widthProperty());
             chequeImageView.fitHeightProperty().bind(previewPane.heightProperty());
@@ -104,80 +152,146 @@ public class ChequePreviewController {
         }
     }
 
+    private void setupCanvas() {
+        previewCanvas = new ChequePreviewCanvas();
+        // Positioned by render(), so the canvas never holds the pane at its size
+        previewCanvas.setManaged(false);
+        if (chequeImageView != null) {
+            previewCanvas.setTemplateImage(chequeImageView.getImage());
+            chequeImageView.setVisible(false);
+            chequeImageView.setManaged(false);
+        }
+        for (Text textNode : new Text[] {dateText, beneficiaryText, amountWordsText, amountText, signerText}) {
+            if (textNode != null) {
+                textNode.setVisible(false);
+            }
+        }
+        previewPane.getChildren().add(previewCanvas);
+
+        previewPane.widthProperty().addListener((obs, oldVal, newVal) -> updatePreview());
+        previewPane.heightProperty().addListener((obs, oldVal, newVal) -> updatePreview());
+    }
+
+    /**
+     * Re-layout the preview texts for the current pane size and template. The work is
+     * done once on the next animation pulse, however often this is called before it.
+     */
     public void updatePreview() {
-        if (selectedTemplate == null || previewPane == null) return;
-        
-        // Add null checks for all text components
-        if (dateText == null || beneficiaryText == null || amountWordsText == null ||
-            amountText == null || signerText == null) {
-            // Preview components not properly injected, skip preview update silently
+        if (!renderScheduled) {
+            renderScheduled = true;
+            renderTimer.start();
+        }
+    }
+
+    public void updatePreviewWithData(String date, String beneficiary, String amountWords, String amount, String signer) {
+        LocalDate parsedDate = ChequeDates.parse(date);
+        if (parsedDate == null && date != null && !date.isEmpty()) {
+            // Not a date: show the text as it is
+            setPendingData(null, date, beneficiary, amountWords, amount, signer);
             return;
         }
+        updatePreviewWithData(parsedDate, beneficiary, amountWords, amount, signer);
+    }
 
-        double scaleX = previewPane.getWidth() / selectedTemplate.getWidth();
-        double scaleY = previewPane.getHeight() / selectedTemplate.getHeight();
+    public void updatePreviewWithData(LocalDate date, String beneficiary, String amountWords, String amount, String signer) {
+        setPendingData(date, null, beneficiary, amountWords, amount, signer);
+    }
 
-        updateText(dateText, dateText.getText(), selectedTemplate.getFields().get("dateField"), scaleX, scaleY);
-        updateText(beneficiaryText, beneficiaryText.getText(), selectedTemplate.getFields().get("beneficiaryField"), scaleX, scaleY);
-        updateText(amountWordsText, amountWordsText.getText(), selectedTemplate.getFields().get("amountWordsField"), scaleX, scaleY);
-        updateText(amountText, amountText.getText(), selectedTemplate.getFields().get("amountField"), scaleX, scaleY);
-        updateText(signerText, signerText.getText(), selectedTemplate.getFields().get("signerField"), scaleX, scaleY);
+    private void setPendingData(LocalDate date, String dateText, String beneficiary, String amountWords, String amount, String signer) {
+        pendingDate = date;
+        pendingDateText = dateText;
+        pendingBeneficiary = beneficiary;
+        pendingAmountWords = amountWords;
+        pendingAmount = amount;
+        pendingSigner = signer;
+        hasPendingData = true;
+        updatePreview();
     }
 
-    public void updatePreviewWithData(String date, String beneficiary, String amountWords, String amount, String signer) {
-        // Add null checks to prevent NullPointerException
+    private void render() {
+        if (previewCanvas != null) {
+            renderCanvas();
+            return;
+        }
+        // Add null checks for all text components
         if (dateText == null || beneficiaryText == null || amountWordsText == null ||
             amountText == null || signerText == null) {
             // Preview components not properly injected, skip preview update silently
             return;
         }
 
-        // Format date according to template's dateFormat
-        String formattedDate = date;
-        if (selectedTemplate != null && selectedTemplate.getDateFormat() != null && date != null) {
-            try {
-                LocalDate parsedDate = LocalDate.parse(date);
-                switch (selectedTemplate.getDateFormat()) {
-                    case "YYYY/MM/DD":
-                        formattedDate = String.format("%04d/%02d/%02d", parsedDate.getYear(), parsedDate.getMonthValue(), parsedDate.getDayOfMonth());
-                        break;
-                    case "DD MM YYYY":
-                        formattedDate = String.format("%02d %02d %04d", parsedDate.getDayOfMonth(), parsedDate.getMonthValue(), parsedDate.getYear());
-                        break;
-                    case "DD/MM/YYYY":
-                        formattedDate = String.format("%02d/%02d/%04d", parsedDate.getDayOfMonth(), parsedDate.getMonthValue(), parsedDate.getYear());
-                        break;
-                    default:
-                        formattedDate = parsedDate.format(dateFormatter);
-                        break;
-                }
-            } catch (Exception e) {
-                // Use original date if parsing fails
-            }
+        if (hasPendingData) {
+            hasPendingData = false;
+            // Format date according to template's dateFormat, at render time so a template change applies
+            String dateFormat = selectedTemplate != null ? selectedTemplate.getDateFormat() : null;
+            setTextIfChanged(dateText, pendingDateText != null ? pendingDateText : ChequeDates.format(pendingDate, dateFormat));
+            setTextIfChanged(beneficiaryText, pendingBeneficiary);
+            setTextIfChanged(amountWordsText, pendingAmountWords);
+            setTextIfChanged(amountText, pendingAmount);
+            setTextIfChanged(signerText, pendingSigner);
         }
 
-        dateText.setText(formattedDate != null ? formattedDate : "");
-        beneficiaryText.setText(beneficiary != null ? beneficiary : "");
-        amountWordsText.setText(amountWords != null ? amountWords : "");
-        amountText.setText(amount != null ? amount : "");
-        signerText.setText(signer != null ? signer : "");
+        if (selectedTemplate == null || previewPane == null) return;
 
-        updatePreview();
+        double scaleX = previewPane.getWidth() / selectedTemplate.getWidth();
+        double scaleY = previewPane.getHeight() / selectedTemplate.getHeight();
+
+        updateText(dateText, selectedTemplate.getFields().get("dateField"), scaleX, scaleY);
+        updateText(beneficiaryText, selectedTemplate.getFields().get("beneficiaryField"), scaleX, scaleY);
+        updateText(amountWordsText, selectedTemplate.getFields().get("amountWordsField"), scaleX, scaleY);
+        updateText(amountText, selectedTemplate.getFields().get("amountField"), scaleX, scaleY);
+        updateText(signerText, selectedTemplate.getFields().get("signerField"), scaleX, scaleY);
     }
 
-    private void updateText(Text textNode, String text, BankTemplate.Field field, double scaleX, double scaleY) {
+    private void renderCanvas() {
+        hasPendingData = false;
+        ChequeData cheque = new ChequeData(pendingDate, pendingBeneficiary, pendingAmount, pendingAmountWords, pendingSigner);
+        List<PdfContent> content = PdfService.createChequeContent(cheque, selectedTemplate);
+        boolean hasDateField = selectedTemplate == null || selectedTemplate.getFields().get("dateField") != null;
+        if (pendingDateText != null && hasDateField && !content.isEmpty()) {
+            // The date comes first in the plan; text that is not a date is shown as typed
+            content.get(0).text = pendingDateText;
+        }
+
+        float pageWidth = PdfService.getPageWidth(selectedTemplate);
+        float pageHeight = PdfService.getPageHeight(selectedTemplate);
+        previewCanvas.fitTo(previewPane.getWidth(), previewPane.getHeight(), pageWidth, pageHeight);
+        previewCanvas.relocate((previewPane.getWidth() - previewCanvas.getWidth()) / 2,
+                (previewPane.getHeight() - previewCanvas.getHeight()) / 2);
+        previewCanvas.draw(pageWidth, pageHeight, PdfService.createSharedContent(selectedTemplate), content);
+    }
+
+    private static void setTextIfChanged(Text textNode, String text) {
+        String value = text != null ? text : "";
+        if (!value.equals(textNode.getText())) {
+            textNode.setText(value);
+        }
+    }
+
+    private void updateText(Text textNode, BankTemplate.Field field, double scaleX, double scaleY) {
         if (field == null || textNode == null) return;
         
         try {
-            textNode.setText(text != null ? text : "");
             textNode.setX(field.getX() * scaleX);
             textNode.setY(field.getY() * scaleY);
-            textNode.setStyle(String.format("-fx-font-size: %fpx;", field.getFontSize() * Math.min(scaleX, scaleY)));
+            Font font = fontForSize(field.getFontSize() * Math.min(scaleX, scaleY));
+            if (textNode.getFont() != font) {
+                textNode.setFont(font);
+            }
         } catch (Exception e) {
             // Silently handle any text update errors
         }
     }
 
+    /**
+     * The default font at a size, rounded to a tenth of a pixel so that resizing reuses
+     * the fonts already created instead of restyling the nodes through CSS.
+     */
+    private static Font fontForSize(double size) {
+        int tenths = (int) Math.round(Math.max(size, 0.1) * 10);
+        return fonts.computeIfAbsent(tenths, key -> Font.font(key / 10.0));
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -191,6 +305,8 @@ public class ChequePreviewController {
     public void setSelectedTemplate(BankTemplate.Template template) { 
         this.selectedTemplate = template;
         loadTemplateImageForBank(template);
+        hasPendingData |= pendingDate != null;
+        updatePreview();
     }
     public Pane getPreviewPane() { return previewPane; }
     public ImageView getChequeImageView() { return chequeImageView; }
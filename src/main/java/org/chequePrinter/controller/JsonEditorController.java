@@ -6,6 +6,7 @@ import com.google.gson.JsonParseException;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextArea;
+import org.chequePrinter.service.BankTemplateRegistry;
 import org.chequePrinter.util.ExceptionHandler;
 import org.chequePrinter.util.LoggerUtil;
 
@@ -13,6 +14,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Properties;
 
@@ -46,7 +48,7 @@ public class JsonEditorController {
         // Try to load from user's AppData directory first
         if (userBankJsonFile.exists()) {
             try (FileReader reader = new FileReader(userBankJsonFile)) {
-                jsonContent = new String(Files.readAllBytes(userBankJsonFile.toPath()));
+                jsonContent = new String(Files.readAllBytes(userBankJsonFile.toPath()), StandardCharsets.UTF_8);
                 logger.info("Loaded bank.json from user data directory: {}", userBankJsonFile.getAbsolutePath());
             } catch (IOException e) {
                 ExceptionHandler.handleException(logger, "loadJsonFile", e, "Error loading bank.json from user data directory.");
@@ -61,7 +63,7 @@ public class JsonEditorController {
                     logger.error("Default bank.json not found in classpath.");
                     return;
                 }
-                jsonContent = new String(input.readAllBytes());
+                jsonContent = new String(input.readAllBytes(), StandardCharsets.UTF_8);
                 logger.info("Loaded bank.json from classpath (default).");
             } catch (IOException e) {
                 ExceptionHandler.handleException(logger, "loadJsonFile", e, "Error loading bank.json from classpath.");
@@ -100,9 +102,18 @@ public class JsonEditorController {
                 userBankJsonFile.getParentFile().mkdirs();
             }
 
-            Files.write(userBankJsonFile.toPath(), formattedJson.getBytes());
-            showAlert(Alert.AlertType.INFORMATION, "Save Successful", "bank.json saved successfully to: " + userBankJsonFile.getAbsolutePath());
+            Files.write(userBankJsonFile.toPath(), formattedJson.getBytes(StandardCharsets.UTF_8));
             logger.info("Saved JSON to: {}", userBankJsonFile.getAbsolutePath());
+            try {
+                // Apply the templates now instead of waiting for the file watcher
+                BankTemplateRegistry.reload();
+            } catch (IOException e) {
+                showAlert(Alert.AlertType.WARNING, "Templates Not Applied",
+                        "bank.json was saved, but its templates are not valid and were not applied:\n" + e.getMessage());
+                logger.warn("Saved bank.json was not applied: {}", e.getMessage());
+                return;
+            }
+            showAlert(Alert.AlertType.INFORMATION, "Save Successful", "bank.json saved successfully to: " + userBankJsonFile.getAbsolutePath());
         } catch (JsonParseException e) {
             showAlert(Alert.AlertType.ERROR, "JSON Validation Error", "Invalid JSON format. Please correct it before saving.");
             ExceptionHandler.handleException(logger, "handleSave", e, "Attempted to save invalid JSON.");
@@ -0,0 +1,92 @@
+package org.chequePrinter.controller;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import org.chequePrinter.service.PrintJob;
+import org.chequePrinter.service.PrintQueueService;
+
+import java.util.function.Consumer;
+
+/**
+ * Shows the jobs of the print queue with their live status and allows cancelling them
+ * or resuming failed ones.
+ */
+public class PrintQueueController {
+
+    @FXML
+    private TableView<PrintJob> jobTable;
+    @FXML
+    private TableColumn<PrintJob, Integer> idColumn;
+    @FXML
+    private TableColumn<PrintJob, String> submittedColumn;
+    @FXML
+    private TableColumn<PrintJob, String> descriptionColumn;
+    @FXML
+    private TableColumn<PrintJob, PrintJob.Status> statusColumn;
+    @FXML
+    private TableColumn<PrintJob, String> pagesColumn;
+    @FXML
+    private TableColumn<PrintJob, Integer> attemptsColumn;
+    @FXML
+    private TableColumn<PrintJob, String> messageColumn;
+
+    private final ObservableList<PrintJob> jobs = FXCollections.observableArrayList();
+
+    // Queue events arrive on the print worker thread
+    private final Consumer<PrintJob> queueListener = job -> Platform.runLater(() -> {
+        if (!jobs.contains(job)) {
+            jobs.add(job);
+        }
+        jobTable.refresh();
+    });
+
+    @FXML
+    public void initialize() {
+        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        submittedColumn.setCellValueFactory(new PropertyValueFactory<>("formattedSubmittedAt"));
+        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
+        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        pagesColumn.setCellValueFactory(new PropertyValueFactory<>("progress"));
+        attemptsColumn.setCellValueFactory(new PropertyValueFactory<>("attempts"));
+        messageColumn.setCellValueFactory(new PropertyValueFactory<>("message"));
+
+        jobs.setAll(PrintQueueService.getJobs());
+        jobTable.setItems(jobs);
+        PrintQueueService.addListener(queueListener);
+    }
+
+    /**
+     * Stop listening to the queue, called when the window is closed.
+     */
+    public void dispose() {
+        PrintQueueService.removeListener(queueListener);
+    }
+
+    @FXML
+    private void cancelSelectedJob() {
+        PrintJob job = jobTable.getSelectionModel().getSelectedItem();
+        if (job != null) {
+            PrintQueueService.cancel(job);
+            jobTable.refresh();
+        }
+    }
+
+    @FXML
+    private void resumeSelectedJob() {
+        PrintJob job = jobTable.getSelectionModel().getSelectedItem();
+        if (job != null && PrintQueueService.resume(job)) {
+            jobTable.refresh();
+        }
+    }
+
+    @FXML
+    private void clearFinishedJobs() {
+        PrintQueueService.clearFinished();
+        jobs.setAll(PrintQueueService.getJobs());
+    }
+}
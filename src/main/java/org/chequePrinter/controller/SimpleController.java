@@ -1,5 +1,6 @@
 package org.chequePrinter.controller;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -9,13 +10,21 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 import javafx.scene.text.Text;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.chequePrinter.model.BankTemplate;
 import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.service.DatabaseService;
+import org.chequePrinter.service.PaymentPlanBatchService;
 import org.chequePrinter.service.PaymentPlanService;
+import org.chequePrinter.service.PdfPrintOptions;
 import org.chequePrinter.service.PdfPrinter;
+import org.chequePrinter.service.PrintJob;
+import org.chequePrinter.service.PrintQueueService;
+import org.chequePrinter.service.PrinterProfileService;
 import org.chequePrinter.util.ExceptionHandler;
 import org.chequePrinter.util.InMemoryLogAppender;
 import org.chequePrinter.util.LogCleanupService;
@@ -28,10 +37,14 @@ import javafx.scene.control.TableRow;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.ResourceBundle;
 
 public class SimpleController implements Initializable {
@@ -60,7 +73,7 @@ public class SimpleController implements Initializable {
 
     @FXML private TableView<ChequeData> chequeTableView;
     @FXML private TableColumn<ChequeData, Integer> idColumn;
-    @FXML private TableColumn<ChequeData, String> dateColumn;
+    @FXML private TableColumn<ChequeData, LocalDate> dateColumn;
     @FXML private TableColumn<ChequeData, String> beneficiaryColumn;
     @FXML private TableColumn<ChequeData, String> amountNumericColumn;
     @FXML private TableColumn<ChequeData, String> amountWordsColumn;
@@ -74,7 +87,7 @@ public class SimpleController implements Initializable {
 
     // Multiple cheque editing table
     @FXML private TableView<ChequeData> multiChequeTableView;
-    @FXML private TableColumn<ChequeData, String> multiDateColumn;
+    @FXML private TableColumn<ChequeData, LocalDate> multiDateColumn;
     @FXML private TableColumn<ChequeData, String> multiBeneficiaryColumn;
     @FXML private TableColumn<ChequeData, String> multiAmountColumn;
     @FXML private TableColumn<ChequeData, String> multiAmountWordsColumn;
@@ -239,8 +252,7 @@ public class SimpleController implements Initializable {
     }
 
     private void updatePreview() {
-        String date = formController.getFirstCheckDatePicker().getValue() != null ?
-                     formController.getFirstCheckDatePicker().getValue().toString() : "";
+        LocalDate date = formController.getFirstCheckDatePicker().getValue();
         String beneficiary = formController.getBeneficiaryField().getText();
         String amountWords = formController.getAmountWordsField().getText();
         String amount = formController.getAmountField().getText();
@@ -269,29 +281,21 @@ public class SimpleController implements Initializable {
 
             LoggerUtil.logOperationStart(logger, "print_single_check", chequeData.getBeneficiaryName(), chequeData.getAmountNumeric());
 
-            float widthInCm = selectedTemplate.getWidth();
-            float heightInCm = selectedTemplate.getHeight();
-
-            try {
-                // Generate PDF and print
-                PDDocument document = printController.generateChequePDF(chequeData, selectedTemplate);
-                boolean printSuccessful = printController.printPDF(document, widthInCm, heightInCm);
-                
-                if (printSuccessful) {
+            // Render and print on the print queue; the window stays usable meanwhile
+            printController.printCheque(chequeData, selectedTemplate, job -> {
+                if (job.isSuccessful()) {
                     // Only save to database if printing was successful (user didn't cancel)
                     dataController.saveCheque(chequeData);
                     logger.info("Cheque printed and saved successfully for beneficiary: {}", chequeData.getBeneficiaryName());
-                } else {
+                    LoggerUtil.logOperationSuccess(logger, "print_single_check");
+                    showAlert("Success", "Cheque printed and saved successfully!");
+                } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
                     logger.info("Print cancelled by user - cheque not saved to database for beneficiary: {}", chequeData.getBeneficiaryName());
                     showAlert("Print Cancelled", "Print job was cancelled. The cheque was not saved to the database.");
-                    return; // Exit without showing success message
+                } else {
+                    showPrintFailure(job, "Failed to print and save cheque. Please check your printer settings and try again.");
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("PDF generation or printing failed", e);
-            }
-            
-            LoggerUtil.logOperationSuccess(logger, "print_single_check");
-            showAlert("Success", "Cheque printed and saved successfully!");
+            });
             
         }, "Failed to print and save cheque. Please check your printer settings and try again.");
     }
@@ -320,29 +324,24 @@ public class SimpleController implements Initializable {
                     return;
                 }
 
-                try {
-                    // Generate cheque data list
-                    List<ChequeData> chequesToPrint = printController.generateChequeDataList(baseData, numChecks, interval);
+                // Generate cheque data list
+                List<ChequeData> chequesToPrint = printController.generateChequeDataList(baseData, numChecks, interval);
 
-                    // Create and print PDF
-                    PDDocument document = printController.generateMultipleChequePDF(chequesToPrint, selectedTemplate);
-                    boolean printSuccessful = printController.printPDF(document, selectedTemplate.getWidth(), selectedTemplate.getHeight());
-
-                    if (printSuccessful) {
+                // Render and print on the print queue
+                printController.printCheques(chequesToPrint, selectedTemplate, job -> {
+                    if (job.isSuccessful()) {
                         // Only save records to the database if printing was successful
                         dataController.saveCheques(chequesToPrint);
                         logger.info("Multiple cheques printed and saved successfully: {} cheques", chequesToPrint.size());
-                    } else {
+                        LoggerUtil.logOperationSuccess(logger, "print_multiple_checks");
+                        showAlert("Success", numChecks + " cheques printed and saved successfully!");
+                    } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
                         logger.info("Print cancelled by user - {} cheques not saved to database", chequesToPrint.size());
                         showAlert("Print Cancelled", "Print job was cancelled. The " + chequesToPrint.size() + " cheques were not saved to the database.");
-                        return; // Exit without showing success message
+                    } else {
+                        showPrintFailure(job, "Failed to print multiple cheques. Please check your settings and try again.");
                     }
-                } catch (Exception e) {
-                    throw new RuntimeException("Multiple cheques generation or printing failed", e);
-                }
-                
-                LoggerUtil.logOperationSuccess(logger, "print_multiple_checks");
-                showAlert("Success", numChecks + " cheques printed and saved successfully!");
+                });
                 
             }, "Failed to print multiple cheques. Please check your settings and try again.");
             
@@ -440,30 +439,37 @@ public class SimpleController implements Initializable {
             // Get signer name from the first cheque (assuming all cheques have the same signer)
             String signerName = cheques.get(0).getSignerName();
             
-            try {
-                // Generate payment plan PDF
+            // Generate the payment plan PDF and print it on A4 portrait from the print queue
+            String profileKey = PrinterProfileService.a4Key("payment-plan");
+            PrintQueueService.submit("Payment plan - " + cheques.size() + " cheque(s)", profileKey, () -> {
                 PDDocument document = PaymentPlanService.generatePaymentPlanPDF(cheques, signerName);
-                
-                // Print the PDF using dedicated A4 Portrait method for payment plan
-                boolean printSuccessful = PdfPrinter.printPaymentPlanPdf(document);
-                
-                if (printSuccessful) {
+                return new PrintQueueService.RenderedPrint(
+                        PdfPrinter.createA4Book(document, PdfPrintOptions.forProfile(profileKey)), document);
+            }, job -> Platform.runLater(() -> {
+                if (job.isSuccessful()) {
                     logger.info("Payment plan printed successfully for {} cheques", cheques.size());
-                } else {
+                    LoggerUtil.logOperationSuccess(logger, "print_payment_plan");
+                    showAlert("Success", "Payment plan printed successfully! Total cheques: " + cheques.size());
+                } else if (job.getStatus() == PrintJob.Status.CANCELLED) {
                     logger.info("Payment plan print cancelled by user");
                     showAlert("Print Cancelled", "Payment plan print job was cancelled.");
-                    return; // Exit without showing success message
+                } else {
+                    showPrintFailure(job, "Failed to print payment plan. Please check your printer settings and try again.");
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("Payment plan generation or printing failed", e);
-            }
-            
-            LoggerUtil.logOperationSuccess(logger, "print_payment_plan");
-            showAlert("Success", "Payment plan printed successfully! Total cheques: " + cheques.size());
+            }));
             
         }, "Failed to print payment plan. Please check your printer settings and try again.");
     }
 
+    private void showPrintFailure(PrintJob job, String userMessage) {
+        logger.error("Print job {} failed: {}", job, job.getMessage());
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(userMessage);
+        alert.setContentText(job.getMessage());
+        alert.showAndWait();
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -782,4 +788,107 @@ public class SimpleController implements Initializable {
             ExceptionHandler.handleException(logger, "handleJsonEditorMenuItem", e, "Failed to open JSON Editor.");
         }
     }
-}
\ No newline at end of file
+
+    @FXML
+    private void handlePrintQueueMenuItem() {
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/org/chequePrinter/view/PrintQueueView.fxml"));
+            Parent root = fxmlLoader.load();
+            PrintQueueController queueController = fxmlLoader.getController();
+            // Not modal, so printing and editing can continue while the queue is open
+            Stage stage = new Stage();
+            stage.setTitle("Print Queue");
+            stage.setScene(new Scene(root));
+            stage.setOnHidden(event -> queueController.dispose());
+            stage.show();
+        } catch (IOException e) {
+            ExceptionHandler.handleException(logger, "handlePrintQueueMenuItem", e, "Failed to open Print Queue.");
+        }
+    }
+
+    @FXML
+    private void handleResetPrintersMenuItem() {
+        PrinterProfileService.clearProfiles();
+        showAlert("Printers Reset", "The print dialog will be shown again the next time each kind of document is printed.");
+    }
+
+    /**
+     * Month-end run: payment plans for every beneficiary (or phone number) with open cheques
+     * in the database, generated in the background with a progress window.
+     */
+    @FXML
+    private void handleBatchPaymentPlansMenuItem() {
+        ChoiceDialog<PaymentPlanBatchService.GroupBy> groupDialog = new ChoiceDialog<>(
+                PaymentPlanBatchService.GroupBy.BENEFICIARY, PaymentPlanBatchService.GroupBy.values());
+        groupDialog.setTitle("Batch Payment Plans");
+        groupDialog.setHeaderText("Create a payment plan for every beneficiary with open cheques (dated today or later).");
+        groupDialog.setContentText("Group cheques by:");
+        Optional<PaymentPlanBatchService.GroupBy> groupBy = groupDialog.showAndWait();
+        if (!groupBy.isPresent()) {
+            return;
+        }
+
+        ButtonType mergedButton = new ButtonType("One Merged PDF");
+        ButtonType separateButton = new ButtonType("Separate Files");
+        Alert outputDialog = new Alert(Alert.AlertType.CONFIRMATION, "How should the payment plans be saved?",
+                mergedButton, separateButton, ButtonType.CANCEL);
+        outputDialog.setTitle("Batch Payment Plans");
+        outputDialog.setHeaderText(null);
+        Optional<ButtonType> output = outputDialog.showAndWait();
+        if (!output.isPresent() || output.get() == ButtonType.CANCEL) {
+            return;
+        }
+        boolean merged = output.get() == mergedButton;
+
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Folder for Payment Plans");
+        File outputDir = directoryChooser.showDialog(previewPane.getScene().getWindow());
+        if (outputDir == null) {
+            return;
+        }
+
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(360);
+        Label progressLabel = new Label("Loading open cheques...");
+        VBox progressBox = new VBox(10, progressLabel, progressBar);
+        progressBox.setStyle("-fx-padding: 15;");
+        Stage progressStage = new Stage();
+        progressStage.setTitle("Batch Payment Plans");
+        progressStage.setScene(new Scene(progressBox));
+        progressStage.show();
+
+        Thread worker = new Thread(() -> {
+            try {
+                // Only the cheques that are still due are read from the database
+                LocalDate today = LocalDate.now();
+                List<ChequeData> openCheques = PaymentPlanBatchService.openCheques(DatabaseService.getChequesFrom(today), today);
+                if (openCheques.isEmpty()) {
+                    Platform.runLater(() -> {
+                        progressStage.close();
+                        showAlert("Batch Payment Plans", "There are no open cheques in the database.");
+                    });
+                    return;
+                }
+                Map<String, List<ChequeData>> groups = PaymentPlanBatchService.groupCheques(openCheques, groupBy.get());
+                LoggerUtil.logOperationStart(logger, "batch_payment_plans", groups.size());
+                Platform.runLater(() -> progressLabel.setText("Generating " + groups.size() + " payment plan(s)..."));
+
+                PaymentPlanBatchService.Result result = PaymentPlanBatchService.generate(groups, outputDir, merged,
+                        progress -> Platform.runLater(() -> {
+                            progressBar.setProgress(progress.getFraction());
+                            progressLabel.setText(progress.toString());
+                        }));
+                Platform.runLater(() -> {
+                    progressStage.close();
+                    LoggerUtil.logOperationSuccess(logger, "batch_payment_plans");
+                    showAlert("Batch Payment Plans", "Created " + result + "\nin " + outputDir.getAbsolutePath());
+                });
+            } catch (IOException | RuntimeException e) {
+                Platform.runLater(progressStage::close);
+                ExceptionHandler.handleException(logger, "batch_payment_plans", e, "Failed to create the payment plans: " + e.getMessage());
+            }
+        }, "payment-plan-batch-runner");
+        worker.setDaemon(true);
+        worker.start();
+    }
+}
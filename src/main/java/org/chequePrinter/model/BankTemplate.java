@@ -1,5 +1,8 @@
 package org.chequePrinter.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -7,6 +10,14 @@ public class BankTemplate {
     private String name;
     private List<Template> templates;
 
+    // Used by Gson
+    public BankTemplate() {}
+
+    public BankTemplate(String name, List<Template> templates) {
+        this.name = name;
+        this.templates = templates;
+    }
+
     public String getName() {
         return name;
     }
@@ -14,6 +25,21 @@ public class BankTemplate {
     public List<Template> getTemplates() {
         return templates;
     }
+
+    /**
+     * Replace the template list and field maps read from JSON with unmodifiable copies,
+     * so a loaded template can be shared safely.
+     */
+    public void freeze() {
+        if (templates != null) {
+            for (Template template : templates) {
+                if (template != null && template.fields != null) {
+                    template.fields = Collections.unmodifiableMap(new LinkedHashMap<>(template.fields));
+                }
+            }
+            templates = Collections.unmodifiableList(new ArrayList<>(templates));
+        }
+    }
     
     @Override
     public String toString() {
@@ -29,6 +55,20 @@ public class BankTemplate {
         private String dateFormat;
         private FixedTextField fixedTextField;
 
+        // Used by Gson
+        public Template() {}
+
+        public Template(String templateName, String imagePath, float width, float height, Map<String, Field> fields,
+                        String dateFormat, FixedTextField fixedTextField) {
+            this.templateName = templateName;
+            this.imagePath = imagePath;
+            this.width = width;
+            this.height = height;
+            this.fields = fields;
+            this.dateFormat = dateFormat;
+            this.fixedTextField = fixedTextField;
+        }
+
         public String getTemplateName() {
             return templateName;
         }
@@ -70,6 +110,17 @@ public class BankTemplate {
         private int alignment;
         private int width;
 
+        // Used by Gson
+        public Field() {}
+
+        public Field(int x, int y, int fontSize, int alignment, int width) {
+            this.x = x;
+            this.y = y;
+            this.fontSize = fontSize;
+            this.alignment = alignment;
+            this.width = width;
+        }
+
         public int getX() {
             return x;
         }
@@ -99,6 +150,18 @@ public class BankTemplate {
         private int fontSize;
         private int alignment;
 
+        // Used by Gson
+        public FixedTextField() {}
+
+        public FixedTextField(String text, int x, int y, int width, int fontSize, int alignment) {
+            this.text = text;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.fontSize = fontSize;
+            this.alignment = alignment;
+        }
+
         public String getText() {
             return text;
         }
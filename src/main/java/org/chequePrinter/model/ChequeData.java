@@ -1,71 +1,148 @@
 package org.chequePrinter.model;
 
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.chequePrinter.util.ChequeDates;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One cheque. Every field is also available as a JavaFX property for table cells, so an
+ * edit repaints only the cells bound to the changed field.
+ *
+ * Properties are created on first use: until then the values live in plain fields, so
+ * cheques loaded for printing, exports or payment plans cost no more than before.
+ */
 public class ChequeData {
-    private int id;
-    private String date;
-    private String beneficiaryName;
-    private String amountNumeric;
-    private String amountWords;
-    private String signerName;
-    private String phoneNumber;
+    private int idValue;
+    private LocalDate dateValue;
+    private String beneficiaryNameValue;
+    private String amountNumericValue;
+    private String amountWordsValue;
+    private String signerNameValue;
+    private String phoneNumberValue;
+
+    private IntegerProperty id;
+    private ObjectProperty<LocalDate> date;
+    private StringProperty beneficiaryName;
+    private StringProperty amountNumeric;
+    private StringProperty amountWords;
+    private StringProperty signerName;
+    private StringProperty phoneNumber;
+
+    // {format, text} of the last formatted date; tables and templates ask for the same format repeatedly
+    private String[] dateText;
 
     // Default constructor
     public ChequeData() {}
 
-    public ChequeData(String date, String beneficiaryName, String amountNumeric, String amountWords, String signerName) {
-        this.date = date;
-        this.beneficiaryName = beneficiaryName;
-        this.amountNumeric = amountNumeric;
-        this.amountWords = amountWords;
-        this.signerName = signerName;
+    public ChequeData(LocalDate date, String beneficiaryName, String amountNumeric, String amountWords, String signerName) {
+        this(0, date, beneficiaryName, amountNumeric, amountWords, signerName, null);
     }
 
-    public ChequeData(String date, String beneficiaryName, String amountNumeric, String amountWords, String signerName, String phoneNumber) {
-        this.date = date;
-        this.beneficiaryName = beneficiaryName;
-        this.amountNumeric = amountNumeric;
-        this.amountWords = amountWords;
-        this.signerName = signerName;
-        this.phoneNumber = phoneNumber;
+    public ChequeData(LocalDate date, String beneficiaryName, String amountNumeric, String amountWords, String signerName, String phoneNumber) {
+        this(0, date, beneficiaryName, amountNumeric, amountWords, signerName, phoneNumber);
     }
 
-    public ChequeData(int id, String date, String beneficiaryName, String amountNumeric, String amountWords, String signerName) {
-        this.id = id;
-        this.date = date;
-        this.beneficiaryName = beneficiaryName;
-        this.amountNumeric = amountNumeric;
-        this.amountWords = amountWords;
-        this.signerName = signerName;
+    public ChequeData(int id, LocalDate date, String beneficiaryName, String amountNumeric, String amountWords, String signerName) {
+        this(id, date, beneficiaryName, amountNumeric, amountWords, signerName, null);
     }
 
-    public ChequeData(int id, String date, String beneficiaryName, String amountNumeric, String amountWords, String signerName, String phoneNumber) {
-        this.id = id;
-        this.date = date;
-        this.beneficiaryName = beneficiaryName;
-        this.amountNumeric = amountNumeric;
-        this.amountWords = amountWords;
-        this.signerName = signerName;
-        this.phoneNumber = phoneNumber;
+    public ChequeData(int id, LocalDate date, String beneficiaryName, String amountNumeric, String amountWords, String signerName, String phoneNumber) {
+        this.idValue = id;
+        this.dateValue = date;
+        this.beneficiaryNameValue = beneficiaryName;
+        this.amountNumericValue = amountNumeric;
+        this.amountWordsValue = amountWords;
+        this.signerNameValue = signerName;
+        this.phoneNumberValue = phoneNumber;
     }
 
     // Getters
-    public int getId() { return id; }
-    public String getDate() { return date; }
-    public String getBeneficiaryName() { return beneficiaryName; }
-    public String getAmountNumeric() { return amountNumeric; }
-    public String getAmountWords() { return amountWords; }
-    public String getSignerName() { return signerName; }
-    public String getPhoneNumber() { return phoneNumber; }
+    public int getId() { return id != null ? id.get() : idValue; }
+    public LocalDate getDate() { return date != null ? date.get() : dateValue; }
+    public String getBeneficiaryName() { return beneficiaryName != null ? beneficiaryName.get() : beneficiaryNameValue; }
+    public String getAmountNumeric() { return amountNumeric != null ? amountNumeric.get() : amountNumericValue; }
+    public String getAmountWords() { return amountWords != null ? amountWords.get() : amountWordsValue; }
+    public String getSignerName() { return signerName != null ? signerName.get() : signerNameValue; }
+    public String getPhoneNumber() { return phoneNumber != null ? phoneNumber.get() : phoneNumberValue; }
+
+    /**
+     * The date formatted for a template date format (see ChequeDates.format), or "" when
+     * there is no date. The text is cached until the date or the format changes.
+     */
+    public String getDateText(String templateDateFormat) {
+        String[] cached = dateText;
+        if (cached == null || !Objects.equals(templateDateFormat, cached[0])) {
+            cached = new String[] {templateDateFormat, ChequeDates.format(getDate(), templateDateFormat)};
+            dateText = cached;
+        }
+        return cached[1];
+    }
 
     // Setters
-    public void setId(int id) { this.id = id; }
-    public void setDate(String date) { this.date = date; }
-    public void setBeneficiaryName(String beneficiaryName) { this.beneficiaryName = beneficiaryName; }
-    public void setAmountNumeric(String amountNumeric) { this.amountNumeric = amountNumeric; }
-    public void setAmountWords(String amountWords) { this.amountWords = amountWords; }
-    public void setSignerName(String signerName) { this.signerName = signerName; }
-    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
-    
+    public void setId(int id) {
+        if (this.id != null) this.id.set(id); else idValue = id;
+    }
+    public void setDate(LocalDate date) {
+        dateText = null;
+        if (this.date != null) this.date.set(date); else dateValue = date;
+    }
+    public void setBeneficiaryName(String beneficiaryName) {
+        if (this.beneficiaryName != null) this.beneficiaryName.set(beneficiaryName); else beneficiaryNameValue = beneficiaryName;
+    }
+    public void setAmountNumeric(String amountNumeric) {
+        if (this.amountNumeric != null) this.amountNumeric.set(amountNumeric); else amountNumericValue = amountNumeric;
+    }
+    public void setAmountWords(String amountWords) {
+        if (this.amountWords != null) this.amountWords.set(amountWords); else amountWordsValue = amountWords;
+    }
+    public void setSignerName(String signerName) {
+        if (this.signerName != null) this.signerName.set(signerName); else signerNameValue = signerName;
+    }
+    public void setPhoneNumber(String phoneNumber) {
+        if (this.phoneNumber != null) this.phoneNumber.set(phoneNumber); else phoneNumberValue = phoneNumber;
+    }
+
+    // Properties, created on first use
+    public IntegerProperty idProperty() {
+        if (id == null) id = new SimpleIntegerProperty(this, "id", idValue);
+        return id;
+    }
+    public ObjectProperty<LocalDate> dateProperty() {
+        if (date == null) {
+            date = new SimpleObjectProperty<>(this, "date", dateValue);
+            // Also when a cell writes the property directly
+            date.addListener(observable -> dateText = null);
+        }
+        return date;
+    }
+    public StringProperty beneficiaryNameProperty() {
+        if (beneficiaryName == null) beneficiaryName = new SimpleStringProperty(this, "beneficiaryName", beneficiaryNameValue);
+        return beneficiaryName;
+    }
+    public StringProperty amountNumericProperty() {
+        if (amountNumeric == null) amountNumeric = new SimpleStringProperty(this, "amountNumeric", amountNumericValue);
+        return amountNumeric;
+    }
+    public StringProperty amountWordsProperty() {
+        if (amountWords == null) amountWords = new SimpleStringProperty(this, "amountWords", amountWordsValue);
+        return amountWords;
+    }
+    public StringProperty signerNameProperty() {
+        if (signerName == null) signerName = new SimpleStringProperty(this, "signerName", signerNameValue);
+        return signerName;
+    }
+    public StringProperty phoneNumberProperty() {
+        if (phoneNumber == null) phoneNumber = new SimpleStringProperty(this, "phoneNumber", phoneNumberValue);
+        return phoneNumber;
+    }
+
     // Helper method to validate phone number format (11 digits starting with 01)
     public static boolean isValidPhoneNumber(String phoneNumber) {
         if (phoneNumber == null || phoneNumber.isEmpty()) {
@@ -0,0 +1,122 @@
+package org.chequePrinter.model;
+
+/**
+ * The printer chosen for one kind of print (a cheque template, the payment plan, ...),
+ * remembered so routine prints can skip the print dialog.
+ *
+ * The rendering options (dpi, subsampling, scaling, center, renderer) are optional and can
+ * be set per printer in printer-profiles.json; unset options use the print.pdf.* settings.
+ */
+public class PrinterProfile {
+    private String key;
+    private String printerName;
+    private String media;
+    private String orientation;
+    private Float dpi;
+    private Boolean subsampling;
+    private String scaling;
+    private Boolean center;
+    private String renderer;
+
+    public PrinterProfile() {}
+
+    public PrinterProfile(String key, String printerName, String media, String orientation) {
+        this.key = key;
+        this.printerName = printerName;
+        this.media = media;
+        this.orientation = orientation;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPrinterName() {
+        return printerName;
+    }
+
+    /**
+     * Name of the javax.print Media attribute (paper size or tray), or null for the printer default.
+     */
+    public String getMedia() {
+        return media;
+    }
+
+    /**
+     * Name of the OrientationRequested attribute (e.g. "portrait"), or null for the page format's own.
+     */
+    public String getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Rasterization resolution for PDF pages; 0 sends the pages as vector graphics.
+     */
+    public Float getDpi() {
+        return dpi;
+    }
+
+    public void setDpi(Float dpi) {
+        this.dpi = dpi;
+    }
+
+    /**
+     * Whether images may be subsampled when rendered (smaller spool, lower image quality).
+     */
+    public Boolean getSubsampling() {
+        return subsampling;
+    }
+
+    public void setSubsampling(Boolean subsampling) {
+        this.subsampling = subsampling;
+    }
+
+    /**
+     * PDFBox Scaling name: ACTUAL_SIZE, SHRINK_TO_FIT, STRETCH_TO_FIT or SCALE_TO_FIT.
+     */
+    public String getScaling() {
+        return scaling;
+    }
+
+    public void setScaling(String scaling) {
+        this.scaling = scaling;
+    }
+
+    public Boolean getCenter() {
+        return center;
+    }
+
+    public void setCenter(Boolean center) {
+        this.center = center;
+    }
+
+    /**
+     * Cheque renderer: "pdf", or "java2d" to send the text as glyphs instead of PDF graphics.
+     */
+    public String getRenderer() {
+        return renderer;
+    }
+
+    public void setRenderer(String renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Keep the rendering options of an earlier profile when the printer is chosen again.
+     */
+    public void copyRenderingOptions(PrinterProfile other) {
+        if (other == null) {
+            return;
+        }
+        this.dpi = other.dpi;
+        this.subsampling = other.subsampling;
+        this.scaling = other.scaling;
+        this.center = other.center;
+        this.renderer = other.renderer;
+    }
+
+    @Override
+    public String toString() {
+        return key + " -> " + printerName;
+    }
+}
@@ -0,0 +1,176 @@
+package org.chequePrinter.service;
+
+import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The validated template catalogue in a compact binary file (bank-templates.bin in the
+ * user data directory), so startup reads it in one go instead of parsing bank.json
+ * with Gson.
+ *
+ * The file records the hash of the bank.json text it was compiled from and is only used
+ * while that hash matches; otherwise the JSON is parsed and the file rewritten. Field
+ * positions are stored as the point values the PDF is drawn with.
+ */
+class BankTemplateCache {
+
+    private static final Logger logger = LoggerUtil.getLogger(BankTemplateCache.class);
+
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("user.home"), "ChequePrinterData", "bank-templates.bin");
+    private static final int MAGIC = 0x43504254; // "CPBT"
+    private static final int VERSION = 1;
+
+    /**
+     * The templates compiled from bank.json text with the given hash, or null when there
+     * is no cache for it (or the cache cannot be read).
+     */
+    static List<BankTemplate> read(String jsonHash) {
+        if (!Files.isRegularFile(CACHE_FILE)) {
+            return null;
+        }
+        try {
+            // Read into the heap rather than mapped: a mapping would keep the file open and
+            // stop write() from replacing it on Windows
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(CACHE_FILE));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !jsonHash.equals(readString(buffer))) {
+                return null;
+            }
+            int bankCount = buffer.getInt();
+            List<BankTemplate> banks = new ArrayList<>(bankCount);
+            for (int i = 0; i < bankCount; i++) {
+                banks.add(readBank(buffer));
+            }
+            return banks;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable template cache {}: {}", CACHE_FILE, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the templates compiled from bank.json text with the given hash.
+     */
+    static synchronized void write(String jsonHash, List<BankTemplate> banks) {
+        try {
+            Files.createDirectories(CACHE_FILE.getParent());
+            // Write to a temporary file first so a crash never leaves a truncated cache
+            Path tempFile = CACHE_FILE.resolveSibling(CACHE_FILE.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, jsonHash);
+                out.writeInt(banks.size());
+                for (BankTemplate bank : banks) {
+                    writeBank(out, bank);
+                }
+            }
+            Files.move(tempFile, CACHE_FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Failed to save template cache {}: {}", CACHE_FILE, e.getMessage());
+        }
+    }
+
+    private static BankTemplate readBank(ByteBuffer buffer) {
+        String name = readString(buffer);
+        int templateCount = buffer.getInt();
+        List<BankTemplate.Template> templates = new ArrayList<>(templateCount);
+        for (int i = 0; i < templateCount; i++) {
+            String templateName = readString(buffer);
+            String imagePath = readString(buffer);
+            float width = buffer.getFloat();
+            float height = buffer.getFloat();
+            String dateFormat = readString(buffer);
+
+            int fieldCount = buffer.getInt();
+            Map<String, BankTemplate.Field> fields = new LinkedHashMap<>();
+            for (int j = 0; j < fieldCount; j++) {
+                String key = readString(buffer);
+                fields.put(key, new BankTemplate.Field(buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), buffer.getInt()));
+            }
+
+            BankTemplate.FixedTextField fixedText = null;
+            if (buffer.get() != 0) {
+                String text = readString(buffer);
+                fixedText = new BankTemplate.FixedTextField(text, buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), buffer.getInt());
+            }
+            templates.add(new BankTemplate.Template(templateName, imagePath, width, height, fields, dateFormat, fixedText));
+        }
+        return new BankTemplate(name, templates);
+    }
+
+    private static void writeBank(DataOutputStream out, BankTemplate bank) throws IOException {
+        writeString(out, bank.getName());
+        out.writeInt(bank.getTemplates().size());
+        for (BankTemplate.Template template : bank.getTemplates()) {
+            writeString(out, template.getTemplateName());
+            writeString(out, template.getImagePath());
+            out.writeFloat(template.getWidth());
+            out.writeFloat(template.getHeight());
+            writeString(out, template.getDateFormat());
+
+            out.writeInt(template.getFields().size());
+            for (Map.Entry<String, BankTemplate.Field> entry : template.getFields().entrySet()) {
+                BankTemplate.Field field = entry.getValue();
+                writeString(out, entry.getKey());
+                out.writeInt(field.getX());
+                out.writeInt(field.getY());
+                out.writeInt(field.getFontSize());
+                out.writeInt(field.getAlignment());
+                out.writeInt(field.getWidth());
+            }
+
+            BankTemplate.FixedTextField fixedText = template.getFixedTextField();
+            out.writeByte(fixedText != null ? 1 : 0);
+            if (fixedText != null) {
+                writeString(out, fixedText.getText());
+                out.writeInt(fixedText.getX());
+                out.writeInt(fixedText.getY());
+                out.writeInt(fixedText.getWidth());
+                out.writeInt(fixedText.getFontSize());
+                out.writeInt(fixedText.getAlignment());
+            }
+        }
+    }
+
+    // Strings are a byte length (-1 for null) followed by UTF-8
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
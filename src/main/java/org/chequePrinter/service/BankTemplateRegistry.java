@@ -0,0 +1,283 @@
+package org.chequePrinter.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The bank templates, parsed once and shared.
+ *
+ * bank.json in the user data directory takes precedence over the one bundled with the
+ * application, as before. Loaded templates are frozen (unmodifiable) and replaced as a
+ * whole, so readers always see one consistent set. Once startWatching has been called,
+ * changes to the user file are picked up automatically: the new file is validated and
+ * swapped in, or rejected with a warning while the previous templates stay in use. A file
+ * whose content did not change is not parsed again, and a file that was seen before is read
+ * from its compiled form (BankTemplateCache) instead of being parsed.
+ */
+public class BankTemplateRegistry {
+
+    private static final Logger logger = LoggerUtil.getLogger(BankTemplateRegistry.class);
+
+    private static final Path USER_BANK_JSON = Paths.get(System.getProperty("user.home"), "ChequePrinterData", "bank.json");
+    // Editors write a file in several steps; wait for them to finish before reading
+    private static final long WATCH_SETTLE_MS = 200;
+
+    // Templates of the user file; banks is null when the file was rejected
+    private static volatile Snapshot userTemplates;
+    private static final Map<String, Snapshot> resourceTemplates = new ConcurrentHashMap<>();
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private static Thread watcher;
+
+    /**
+     * The bank templates: from the user data directory when it has a valid bank.json,
+     * otherwise from the classpath resource.
+     */
+    public static List<BankTemplate> getBankTemplates(String resourcePath) throws IOException {
+        return getSnapshot(resourcePath).banks;
+    }
+
+    /**
+     * SHA-256 (hex) of the bank.json text the current templates were parsed from.
+     */
+    public static String getContentHash(String resourcePath) throws IOException {
+        return getSnapshot(resourcePath).hash;
+    }
+
+    private static Snapshot getSnapshot(String resourcePath) throws IOException {
+        Snapshot user = userTemplates;
+        if (user == null && Files.isRegularFile(USER_BANK_JSON)) {
+            synchronized (BankTemplateRegistry.class) {
+                if (userTemplates == null) {
+                    loadUserFile();
+                }
+                user = userTemplates;
+            }
+        }
+        if (user != null && user.banks != null) {
+            return user;
+        }
+        return getResourceSnapshot(resourcePath);
+    }
+
+    private static Snapshot getResourceSnapshot(String resourcePath) throws IOException {
+        Snapshot cached = resourceTemplates.get(resourcePath);
+        if (cached != null) {
+            return cached;
+        }
+        try (InputStream stream = BankTemplateRegistry.class.getResourceAsStream(resourcePath)) {
+            if (stream == null) {
+                throw new IOException("Resource not found in classpath: " + resourcePath);
+            }
+            logger.info("Loading bank.json from classpath: {}", resourcePath);
+            Snapshot snapshot = parse(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+            resourceTemplates.put(resourcePath, snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Re-read the user bank.json now, e.g. right after saving it. The listeners are told
+     * when the templates changed.
+     *
+     * @return true when new templates were swapped in, false when the file did not change
+     * @throws IOException when the file cannot be read or does not hold valid templates;
+     *                     the previous templates stay in use
+     */
+    public static synchronized boolean reload() throws IOException {
+        if (!Files.isRegularFile(USER_BANK_JSON)) {
+            if (userTemplates == null) {
+                return false;
+            }
+            logger.info("User bank.json removed, using the bundled templates");
+            userTemplates = null;
+            notifyListeners();
+            return true;
+        }
+
+        String json = new String(Files.readAllBytes(USER_BANK_JSON), StandardCharsets.UTF_8);
+        Snapshot current = userTemplates;
+        if (current != null && current.hash.equals(hash(json))) {
+            return false;
+        }
+        Snapshot snapshot = parse(json);
+        userTemplates = snapshot;
+        logger.info("Reloaded bank.json from user data directory: {} banks", snapshot.banks.size());
+        notifyListeners();
+        return true;
+    }
+
+    private static void loadUserFile() {
+        String json = null;
+        try {
+            json = new String(Files.readAllBytes(USER_BANK_JSON), StandardCharsets.UTF_8);
+            logger.info("Loading bank.json from user data directory: {}", USER_BANK_JSON);
+            userTemplates = parse(json);
+        } catch (IOException e) {
+            logger.warn("Failed to load bank.json from user data directory, falling back to classpath: {}", e.getMessage());
+            // Remember the rejected content so it is not parsed again until it changes
+            userTemplates = new Snapshot(json != null ? hash(json) : "", null);
+        }
+    }
+
+    /**
+     * Call listener after the templates have changed (on the thread that noticed it).
+     */
+    public static void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private static void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Bank template listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Watch the user data directory and reload bank.json when it is created, changed or
+     * deleted. Does nothing when already watching.
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            Path directory = USER_BANK_JSON.getParent();
+            Files.createDirectories(directory);
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watcher = new Thread(() -> watch(watchService), "bank-json-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            logger.info("Watching {} for changes", USER_BANK_JSON);
+        } catch (IOException e) {
+            logger.warn("Cannot watch {} for changes: {}", USER_BANK_JSON, e.getMessage());
+        }
+    }
+
+    private static void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Thread.sleep(WATCH_SETTLE_MS);
+                boolean bankJsonChanged = key.pollEvents().stream()
+                        .anyMatch(event -> USER_BANK_JSON.getFileName().equals(event.context()));
+                key.reset();
+                if (bankJsonChanged) {
+                    try {
+                        reload();
+                    } catch (IOException e) {
+                        logger.warn("Ignoring changed bank.json, keeping the current templates: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("Stopped watching {}", USER_BANK_JSON);
+        }
+    }
+
+    private static Snapshot parse(String json) throws IOException {
+        String hash = hash(json);
+        // The compiled catalogue of the same text was validated when it was written
+        List<BankTemplate> banks = BankTemplateCache.read(hash);
+        if (banks == null) {
+            try (Reader reader = new StringReader(json)) {
+                banks = Json.gson.fromJson(reader, Json.LIST_TYPE);
+            } catch (JsonParseException e) {
+                throw new IOException("Invalid JSON in bank.json: " + e.getMessage(), e);
+            }
+            validate(banks);
+            BankTemplateCache.write(hash, banks);
+        }
+        for (BankTemplate bank : banks) {
+            bank.freeze();
+        }
+        return new Snapshot(hash, Collections.unmodifiableList(banks));
+    }
+
+    private static void validate(List<BankTemplate> banks) throws IOException {
+        if (banks == null || banks.isEmpty()) {
+            throw new IOException("bank.json has no banks");
+        }
+        for (BankTemplate bank : banks) {
+            if (bank == null || bank.getName() == null || bank.getTemplates() == null || bank.getTemplates().isEmpty()) {
+                throw new IOException("bank.json has a bank without a name or templates");
+            }
+            for (BankTemplate.Template template : bank.getTemplates()) {
+                if (template == null || template.getTemplateName() == null) {
+                    throw new IOException("Bank " + bank.getName() + " has a template without a name");
+                }
+                if (template.getWidth() <= 0 || template.getHeight() <= 0 || template.getFields() == null
+                        || template.getFields().containsValue(null)) {
+                    throw new IOException("Template " + template.getTemplateName() + " needs a width, a height and fields");
+                }
+            }
+        }
+    }
+
+    private static String hash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Gson is only set up when bank.json has to be parsed
+    private static class Json {
+        static final Gson gson = new Gson();
+        static final Type LIST_TYPE = new TypeToken<List<BankTemplate>>(){}.getType();
+    }
+
+    /**
+     * One parsed bank.json and the hash of its text.
+     */
+    private static class Snapshot {
+        private final String hash;
+        private final List<BankTemplate> banks;
+
+        Snapshot(String hash, List<BankTemplate> banks) {
+            this.hash = hash;
+            this.banks = banks;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.chequePrinter.service;
+
+import org.chequePrinter.model.PdfContent;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.print.PageFormat;
+import java.awt.print.Printable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints cheque pages straight from the render plan with Java2D, without building and
+ * rasterizing a PDF. The text is prepared exactly as PdfGenerator does it and the page
+ * is drawn with the same -90 rotation, so the output matches the PDF print path.
+ */
+public class ChequePrintable implements Printable {
+
+    private final float pageWidth;
+    private final float pageHeight;
+    private final List<List<PdfContent>> allPagesContent;
+    private final List<PdfContent> sharedContent;
+    private final Font baseFont;
+    private final Map<Float, Font> fontsBySize = new HashMap<>();
+
+    // Prepared (formatted, shaped, reordered) text per content item, computed once
+    private final Map<PdfContent, String> preparedText = new HashMap<>();
+
+    /**
+     * @param pageWidth  cheque width in points
+     * @param pageHeight cheque height in points
+     */
+    public ChequePrintable(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent,
+                           List<PdfContent> sharedContent, String fontPath) throws IOException {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.allPagesContent = allPagesContent != null ? allPagesContent : Collections.emptyList();
+        this.sharedContent = sharedContent != null ? sharedContent : Collections.emptyList();
+        this.baseFont = loadFont(fontPath);
+    }
+
+    public int getNumberOfPages() {
+        return Math.max(1, allPagesContent.size());
+    }
+
+    @Override
+    public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) {
+        if (pageIndex >= getNumberOfPages()) {
+            return NO_SUCH_PAGE;
+        }
+
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setColor(Color.BLACK);
+
+            // Same placement as the PDF path: the page is rotated by -90 degrees onto the
+            // (height x width) paper, so PDF point (x, y) lands at (height - y, width - x)
+            g.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
+            g.translate(0, pageWidth);
+            g.rotate(-Math.PI / 2);
+
+            drawContents(g, sharedContent);
+            if (pageIndex < allPagesContent.size()) {
+                drawContents(g, allPagesContent.get(pageIndex));
+            }
+        } finally {
+            g.dispose();
+        }
+        return PAGE_EXISTS;
+    }
+
+    private void drawContents(Graphics2D g, List<PdfContent> contents) {
+        if (contents == null) {
+            return;
+        }
+        FontRenderContext frc = g.getFontRenderContext();
+        for (PdfContent content : contents) {
+            String text = preparedText.computeIfAbsent(content, PdfGenerator::prepareText);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            // The text is already shaped and in visual order, so map characters to glyphs
+            // one to one (as PDF showText does) instead of letting Java2D lay it out again
+            Font font = fontsBySize.computeIfAbsent(content.fontSize, baseFont::deriveFont);
+            GlyphVector glyphs = font.createGlyphVector(frc, text.toCharArray());
+            g.drawGlyphVector(glyphs, content.x, pageHeight - content.y);
+        }
+    }
+
+    /**
+     * Load the font in the same order of preference as PdfGenerator.
+     */
+    private static Font loadFont(String fontPath) throws IOException {
+        List<File> systemFonts = new ArrayList<>();
+        systemFonts.add(new File("C:/Windows/Fonts/arialuni.ttf"));
+        systemFonts.add(new File("C:/Windows/Fonts/arial.ttf"));
+        systemFonts.add(new File("C:/Windows/Fonts/tahoma.ttf"));
+
+        for (File fontFile : systemFonts) {
+            if (fontFile.isFile()) {
+                try {
+                    return Font.createFont(Font.TRUETYPE_FONT, fontFile);
+                } catch (FontFormatException | IOException e) {
+                    System.err.println("Could not load " + fontFile + ": " + e.getMessage());
+                }
+            }
+        }
+
+        try (InputStream fontStream = ChequePrintable.class.getClassLoader().getResourceAsStream(fontPath)) {
+            if (fontStream != null) {
+                return Font.createFont(Font.TRUETYPE_FONT, fontStream);
+            }
+        } catch (FontFormatException e) {
+            throw new IOException("Invalid font " + fontPath + ": " + e.getMessage(), e);
+        }
+        throw new IOException("Could not load any suitable font for Arabic text");
+    }
+}
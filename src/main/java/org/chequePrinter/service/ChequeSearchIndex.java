@@ -0,0 +1,268 @@
+package org.chequePrinter.service;
+
+import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.util.SearchText;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalized search keys of the loaded cheques, computed once when a cheque is added
+ * instead of on every filter keystroke, and a trigram index over signer names and phone
+ * numbers for substring search without scanning every cheque.
+ *
+ * Every added cheque gets the next id, so a filter can tell the cheques it has already
+ * seen from those added after it ran. For each three-character sequence of a key the index
+ * keeps the ascending ids of the cheques containing it (an int array per trigram); a
+ * substring query intersects the lists of its trigrams and checks the few remaining
+ * cheques. Adding appends to the lists; removing only marks the cheque's entry as gone,
+ * and compact() drops the removed ids from the lists once, after a batch of removals.
+ */
+public class ChequeSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<ChequeData, Keys> keys = new IdentityHashMap<>();
+    private final Map<Long, Postings> signerNameGrams = new HashMap<>();
+    private final Map<Long, Postings> phoneNumberGrams = new HashMap<>();
+
+    // Keys by id - idBase, null once removed; ids keep increasing across clear()
+    private Keys[] entries = new Keys[1024];
+    private int idBase;
+    private int nextId = 1;
+    // Removed cheques whose ids are still in the trigram lists
+    private int removedCount;
+
+    public void add(ChequeData cheque) {
+        remove(cheque);
+        int id = nextId++;
+        Keys chequeKeys = new Keys(cheque, id);
+        keys.put(cheque, chequeKeys);
+
+        int slot = id - idBase;
+        if (slot >= entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, slot + 1));
+        }
+        entries[slot] = chequeKeys;
+        addGrams(signerNameGrams, chequeKeys.signerName, id);
+        addGrams(phoneNumberGrams, chequeKeys.phoneNumber, id);
+    }
+
+    public void remove(ChequeData cheque) {
+        Keys chequeKeys = keys.remove(cheque);
+        if (chequeKeys == null) {
+            return;
+        }
+        entries[(int) chequeKeys.sequence - idBase] = null;
+        removedCount++;
+    }
+
+    /**
+     * Drop the ids of removed cheques from the trigram lists, when they make up a
+     * noticeable part of them. Call after a batch of removals.
+     */
+    public void compact() {
+        if (removedCount == 0 || removedCount < keys.size() / 4) {
+            return;
+        }
+        compactGrams(signerNameGrams);
+        compactGrams(phoneNumberGrams);
+
+        // Re-base the entries on the oldest remaining cheque
+        int first = 0;
+        int used = nextId - idBase;
+        while (first < used && entries[first] == null) {
+            first++;
+        }
+        entries = Arrays.copyOfRange(entries, first, Math.max(first + 1024, used));
+        idBase += first;
+        removedCount = 0;
+    }
+
+    public void clear() {
+        keys.clear();
+        signerNameGrams.clear();
+        phoneNumberGrams.clear();
+        entries = new Keys[1024];
+        idBase = nextId;
+        removedCount = 0;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Sequence number (id) of the most recently added cheque.
+     */
+    public long getLastSequence() {
+        return nextId - 1;
+    }
+
+    /**
+     * The keys of a cheque; a cheque that is not indexed gets keys computed on the spot,
+     * with a sequence number after every indexed one.
+     */
+    public Keys keys(ChequeData cheque) {
+        Keys cached = keys.get(cheque);
+        return cached != null ? cached : new Keys(cheque, Long.MAX_VALUE);
+    }
+
+    /**
+     * Indexed cheques whose normalized signer name contains the normalized text, or null
+     * when the text is shorter than a trigram and the index cannot help.
+     */
+    public List<ChequeData> findBySignerName(String normalizedText) {
+        return find(signerNameGrams, normalizedText, true);
+    }
+
+    /**
+     * Indexed cheques whose normalized phone number contains the normalized text, or null
+     * when the text is shorter than a trigram and the index cannot help.
+     */
+    public List<ChequeData> findByPhoneNumber(String normalizedText) {
+        return find(phoneNumberGrams, normalizedText, false);
+    }
+
+    private List<ChequeData> find(Map<Long, Postings> grams, String text, boolean signerName) {
+        if (text == null || text.length() < GRAM_LENGTH) {
+            return null;
+        }
+        long[] textGrams = gramsOf(text);
+        List<Postings> lists = new ArrayList<>(textGrams.length);
+        for (long gram : textGrams) {
+            Postings postings = grams.get(gram);
+            if (postings == null) {
+                return Collections.emptyList();
+            }
+            lists.add(postings);
+        }
+        // Start from the shortest list and probe the longer ones
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        Postings shortest = lists.get(0);
+        int[] ids = Arrays.copyOf(shortest.ids, shortest.size);
+        int count = ids.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(ids, count, lists.get(i));
+        }
+
+        // All trigrams present does not yet mean the text is contained, unless it is one trigram
+        boolean verify = text.length() > GRAM_LENGTH;
+        List<ChequeData> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Keys chequeKeys = entries[ids[i] - idBase];
+            if (chequeKeys == null) {
+                // Removed, not compacted yet
+                continue;
+            }
+            String key = signerName ? chequeKeys.signerName : chequeKeys.phoneNumber;
+            if (!verify || key.contains(text)) {
+                found.add(chequeKeys.cheque);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Keep the first count ids that also appear in the postings; returns the new count.
+     */
+    private static int intersect(int[] ids, int count, Postings other) {
+        int kept = 0;
+        if (other.size > count * 8L) {
+            // Much longer list: binary search it for each id
+            for (int j = 0; j < count; j++) {
+                if (Arrays.binarySearch(other.ids, 0, other.size, ids[j]) >= 0) {
+                    ids[kept++] = ids[j];
+                }
+            }
+            return kept;
+        }
+        int k = 0;
+        for (int j = 0; j < count && k < other.size; j++) {
+            while (k < other.size && other.ids[k] < ids[j]) {
+                k++;
+            }
+            if (k < other.size && other.ids[k] == ids[j]) {
+                ids[kept++] = ids[j];
+            }
+        }
+        return kept;
+    }
+
+    private static void addGrams(Map<Long, Postings> grams, String key, int id) {
+        for (long gram : gramsOf(key)) {
+            grams.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+    }
+
+    private void compactGrams(Map<Long, Postings> grams) {
+        grams.values().removeIf(postings -> {
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int id = postings.ids[i];
+                if (entries[id - idBase] != null) {
+                    postings.ids[kept++] = id;
+                }
+            }
+            postings.size = kept;
+            return kept == 0;
+        });
+    }
+
+    /**
+     * The trigrams of a text, each packed into a long (three 16-bit chars).
+     */
+    private static long[] gramsOf(String text) {
+        long[] grams = new long[Math.max(0, text.length() - GRAM_LENGTH + 1)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    /**
+     * Ascending cheque ids. New cheques have the highest id, so adding appends.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                // Trigram repeated within the same key
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * The normalized texts a cheque is searched by.
+     */
+    public static class Keys {
+        private final ChequeData cheque;
+        private final String signerName;
+        private final String phoneNumber;
+        private final long sequence;
+
+        Keys(ChequeData cheque, long sequence) {
+            this.cheque = cheque;
+            this.signerName = SearchText.normalize(cheque.getSignerName());
+            this.phoneNumber = SearchText.normalize(cheque.getPhoneNumber());
+            this.sequence = sequence;
+        }
+
+        public String getSignerName() { return signerName; }
+        public String getPhoneNumber() { return phoneNumber; }
+        public long getSequence() { return sequence; }
+    }
+}
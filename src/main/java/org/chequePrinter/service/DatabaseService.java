@@ -1,12 +1,14 @@
 package org.chequePrinter.service;
 
 import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.util.ChequeDates;
 import org.chequePrinter.util.ExceptionHandler;
 import org.chequePrinter.util.LoggerUtil;
 import org.slf4j.Logger;
 
 import java.io.File;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -65,6 +67,16 @@ public class DatabaseService {
                         logger.debug("Phone number column already exists: {}", e.getMessage());
                     }
                     
+                    // Dates are stored as epoch days (cheque_date keeps the ISO text for older versions)
+                    try {
+                        stmt.execute("ALTER TABLE cheques ADD COLUMN cheque_day INTEGER");
+                        logger.info("Added cheque_day column to existing table");
+                    } catch (SQLException e) {
+                        logger.debug("Cheque day column already exists: {}", e.getMessage());
+                    }
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_cheques_day ON cheques(cheque_day)");
+                    migrateChequeDays(conn);
+                    
                     logger.info("Database initialized successfully with UTF-8 encoding");
                 } else {
                     throw new SQLException("Failed to establish database connection");
@@ -77,11 +89,63 @@ public class DatabaseService {
         LoggerUtil.logMethodExit(logger, "initializeDatabase");
     }
 
+    /**
+     * Fill cheque_day for rows saved before the column existed, parsing their date text once.
+     */
+    private static void migrateChequeDays(Connection conn) throws SQLException {
+        List<long[]> days = new ArrayList<>();
+        int unparsed = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, cheque_date FROM cheques WHERE cheque_day IS NULL")) {
+            while (rs.next()) {
+                LocalDate date = ChequeDates.parse(rs.getString("cheque_date"));
+                if (date != null) {
+                    days.add(new long[] {rs.getInt("id"), date.toEpochDay()});
+                } else {
+                    unparsed++;
+                }
+            }
+        }
+        if (unparsed > 0) {
+            logger.warn("{} cheque(s) have a date that cannot be parsed; their cheque_day stays empty", unparsed);
+        }
+        if (days.isEmpty()) {
+            return;
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE cheques SET cheque_day = ? WHERE id = ?")) {
+            for (long[] day : days) {
+                pstmt.setLong(1, day[1]);
+                pstmt.setLong(2, day[0]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            logger.info("Migrated the dates of {} cheque(s) to cheque_day", days.size());
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Bind the date as ISO text and epoch day; a cheque without a date is saved for today.
+     */
+    private static void setDate(PreparedStatement pstmt, int textIndex, int dayIndex, LocalDate date) throws SQLException {
+        LocalDate value = date != null ? date : LocalDate.now();
+        pstmt.setString(textIndex, value.toString());
+        pstmt.setLong(dayIndex, value.toEpochDay());
+    }
+
     public static void saveCheque(ChequeData cheque) {
         LoggerUtil.logMethodEntry(logger, "saveCheque", cheque.getBeneficiaryName(), cheque.getAmountNumeric());
         
         ExceptionHandler.executeWithExceptionHandling(logger, "saveCheque", () -> {
-            String sql = "INSERT INTO cheques(cheque_date, beneficiary_name, amount_numeric, amount_words, signer_name, phone_number) VALUES(?,?,?,?,?,?)";
+            String sql = "INSERT INTO cheques(cheque_date, beneficiary_name, amount_numeric, amount_words, signer_name, phone_number, cheque_day) VALUES(?,?,?,?,?,?,?)";
 
             try (Connection conn = DriverManager.getConnection(DB_URL);
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -89,7 +153,7 @@ public class DatabaseService {
                 LoggerUtil.logDatabaseOperation(logger, "insert", "cheques",
                     cheque.getBeneficiaryName(), cheque.getAmountNumeric());
                 
-                pstmt.setString(1, cheque.getDate());
+                setDate(pstmt, 1, 7, cheque.getDate());
                 pstmt.setString(2, cheque.getBeneficiaryName());
                 pstmt.setDouble(3, Double.parseDouble(cheque.getAmountNumeric()));
                 pstmt.setString(4, cheque.getAmountWords());
@@ -115,6 +179,46 @@ public class DatabaseService {
         LoggerUtil.logMethodExit(logger, "saveCheque");
     }
 
+    /**
+     * Save many cheques in one transaction using a batched insert.
+     * Either all cheques are saved or none are.
+     */
+    public static boolean saveCheques(List<ChequeData> cheques) {
+        LoggerUtil.logMethodEntry(logger, "saveCheques", cheques.size());
+
+        boolean saved = ExceptionHandler.executeWithExceptionHandling(logger, "saveCheques", () -> {
+            String sql = "INSERT INTO cheques(cheque_date, beneficiary_name, amount_numeric, amount_words, signer_name, phone_number, cheque_day) VALUES(?,?,?,?,?,?,?)";
+
+            try (Connection conn = DriverManager.getConnection(DB_URL)) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (ChequeData cheque : cheques) {
+                        setDate(pstmt, 1, 7, cheque.getDate());
+                        pstmt.setString(2, cheque.getBeneficiaryName());
+                        pstmt.setDouble(3, Double.parseDouble(cheque.getAmountNumeric()));
+                        pstmt.setString(4, cheque.getAmountWords());
+                        pstmt.setString(5, cheque.getSignerName());
+                        pstmt.setString(6, cheque.getPhoneNumber());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                    LoggerUtil.logDatabaseOperation(logger, "batch insert", "cheques", cheques.size());
+                } catch (SQLException | NumberFormatException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to save cheques to database", e);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid amount format: " + e.getMessage(), e);
+            }
+        }, "Failed to save cheques to database. Please check your data and try again.");
+
+        LoggerUtil.logMethodExit(logger, "saveCheques");
+        return saved;
+    }
+
     public static List<ChequeData> getAllCheques() {
         LoggerUtil.logMethodEntry(logger, "getAllCheques");
         
@@ -130,15 +234,7 @@ public class DatabaseService {
                 
                 int count = 0;
                 while (rs.next()) {
-                    cheques.add(new ChequeData(
-                            rs.getInt("id"),
-                            rs.getString("cheque_date"),
-                            rs.getString("beneficiary_name"),
-                            String.valueOf(rs.getDouble("amount_numeric")),
-                            rs.getString("amount_words"),
-                            rs.getString("signer_name"),
-                            rs.getString("phone_number")
-                    ));
+                    cheques.add(readCheque(rs));
                     count++;
                 }
                 
@@ -152,6 +248,51 @@ public class DatabaseService {
         }, "Failed to load cheques from database. Please check the database connection.").orElse(new ArrayList<>());
     }
 
+    /**
+     * Cheques dated on or after the given day, newest first, using the cheque_day index.
+     * Cheques whose date could not be parsed are included as well.
+     */
+    public static List<ChequeData> getChequesFrom(LocalDate from) {
+        LoggerUtil.logMethodEntry(logger, "getChequesFrom", from);
+
+        return ExceptionHandler.executeWithExceptionHandling(logger, "getChequesFrom", () -> {
+            String sql = "SELECT * FROM cheques WHERE cheque_day >= ? OR cheque_day IS NULL ORDER BY id DESC";
+            List<ChequeData> cheques = new ArrayList<>();
+
+            try (Connection conn = DriverManager.getConnection(DB_URL);
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, from.toEpochDay());
+                LoggerUtil.logDatabaseOperation(logger, "select_from", "cheques");
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        cheques.add(readCheque(rs));
+                    }
+                }
+
+                logger.info("Retrieved {} cheques dated from {}", cheques.size(), from);
+                LoggerUtil.logMethodExit(logger, "getChequesFrom", cheques.size());
+                return cheques;
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to retrieve cheques from database", e);
+            }
+        }, "Failed to load cheques from database. Please check the database connection.").orElse(new ArrayList<>());
+    }
+
+    private static ChequeData readCheque(ResultSet rs) throws SQLException {
+        long day = rs.getLong("cheque_day");
+        LocalDate date = rs.wasNull() ? ChequeDates.parse(rs.getString("cheque_date")) : LocalDate.ofEpochDay(day);
+        return new ChequeData(
+                rs.getInt("id"),
+                date,
+                rs.getString("beneficiary_name"),
+                String.valueOf(rs.getDouble("amount_numeric")),
+                rs.getString("amount_words"),
+                rs.getString("signer_name"),
+                rs.getString("phone_number")
+        );
+    }
+
     public static void deleteCheque(int id) {
         LoggerUtil.logMethodEntry(logger, "deleteCheque", id);
         
@@ -1,34 +1,27 @@
 package org.chequePrinter.service;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import org.chequePrinter.model.BankTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class JsonLoader {
+    private static final Gson gson = new Gson();
+
     public static BankTemplate loadBankTemplate(String path) throws IOException {
-        Gson gson = new Gson();
         try (InputStream stream = JsonLoader.class.getResourceAsStream(path)) {
             if (stream == null) {
                 throw new IOException("Resource not found: " + path);
             }
-            return gson.fromJson(new InputStreamReader(stream), BankTemplate.class);
+            return gson.fromJson(new InputStreamReader(stream, StandardCharsets.UTF_8), BankTemplate.class);
         }
     }
     
     public static List<BankTemplate> loadBankTemplates(String path) throws IOException {
-        Gson gson = new Gson();
-        try (InputStream stream = JsonLoader.class.getResourceAsStream(path)) {
-            if (stream == null) {
-                throw new IOException("Resource not found: " + path);
-            }
-            Type listType = new TypeToken<List<BankTemplate>>(){}.getType();
-            return gson.fromJson(new InputStreamReader(stream), listType);
-        }
+        return BankTemplateRegistry.getBankTemplates(path);
     }
 }
@@ -0,0 +1,42 @@
+package org.chequePrinter.service;
+
+import java.awt.print.PageFormat;
+import java.awt.print.Pageable;
+import java.awt.print.Printable;
+
+/**
+ * A window of pages [from, to) of another Pageable, used to spool a large print as
+ * several smaller printer jobs. Page i of the window prints page from + i of the base.
+ */
+class PageRangePageable implements Pageable {
+
+    private final Pageable base;
+    private final int from;
+    private final int to;
+
+    PageRangePageable(Pageable base, int from, int to) {
+        if (from < 0 || to <= from) {
+            throw new IllegalArgumentException("Invalid page range " + from + "-" + to);
+        }
+        this.base = base;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int getNumberOfPages() {
+        return to - from;
+    }
+
+    @Override
+    public PageFormat getPageFormat(int pageIndex) {
+        return base.getPageFormat(from + pageIndex);
+    }
+
+    @Override
+    public Printable getPrintable(int pageIndex) {
+        // PDFPrintable and ChequePrintable pick the page by index, so shift it as well
+        Printable printable = base.getPrintable(from + pageIndex);
+        return (graphics, pageFormat, index) -> printable.print(graphics, pageFormat, from + index);
+    }
+}
@@ -0,0 +1,318 @@
+package org.chequePrinter.service;
+
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.chequePrinter.model.ChequeData;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates payment plans for many beneficiaries in one run, e.g. at month end for every
+ * beneficiary with open cheques.
+ *
+ * Cheques are grouped by beneficiary name or phone number and each group's plan is
+ * rendered with PaymentPlanService on a pool of paymentPlan.batch.threads workers. The
+ * plans are written as separate files or merged, in group order, into one document.
+ */
+public class PaymentPlanBatchService {
+
+    private static final Logger logger = LoggerUtil.getLogger(PaymentPlanBatchService.class);
+
+    static final String THREADS_KEY = "paymentPlan.batch.threads";
+
+    private static final DateTimeFormatter fileTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public enum GroupBy {
+        BENEFICIARY("Beneficiary"),
+        PHONE_NUMBER("Phone number");
+
+        private final String label;
+
+        GroupBy(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Cheques that are still open: dated on or after the given day.
+     */
+    public static List<ChequeData> openCheques(List<ChequeData> cheques, LocalDate from) {
+        List<ChequeData> open = new ArrayList<>();
+        for (ChequeData cheque : cheques) {
+            // Cheques without a date count as due today, as before
+            LocalDate date = cheque.getDate() != null ? cheque.getDate() : LocalDate.now();
+            if (!date.isBefore(from)) {
+                open.add(cheque);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Group cheques by beneficiary name or by phone number (digits only; cheques without a
+     * phone number fall back to their beneficiary). Groups are sorted by key and the cheques
+     * of each group by date.
+     */
+    public static Map<String, List<ChequeData>> groupCheques(List<ChequeData> cheques, GroupBy groupBy) {
+        Map<String, List<ChequeData>> groups = new TreeMap<>();
+        for (ChequeData cheque : cheques) {
+            groups.computeIfAbsent(groupKey(cheque, groupBy), key -> new ArrayList<>()).add(cheque);
+        }
+        Comparator<ChequeData> byDate = Comparator.comparing(ChequeData::getDate,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        for (List<ChequeData> group : groups.values()) {
+            group.sort(byDate);
+        }
+        return groups;
+    }
+
+    /**
+     * Render one plan per group into outputDir, in parallel.
+     *
+     * @param merged     write one PDF with all plans instead of one file per group
+     * @param onProgress called after each plan, on the worker that finished it (may be null)
+     */
+    public static Result generate(Map<String, List<ChequeData>> groups, File outputDir, boolean merged,
+                                  Consumer<Progress> onProgress) throws IOException {
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create output directory: " + outputDir.getAbsolutePath());
+        }
+
+        long start = System.currentTimeMillis();
+        int totalCheques = groups.values().stream().mapToInt(List::size).sum();
+        List<File> planFiles = planFiles(groups, outputDir, merged);
+
+        int threads = AppConfig.getInt(THREADS_KEY, 0);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        threads = Math.max(1, Math.min(threads, groups.size()));
+        logger.info("Generating {} payment plan(s) for {} cheque(s) on {} thread(s)", groups.size(), totalCheques, threads);
+
+        AtomicInteger completedPlans = new AtomicInteger();
+        AtomicInteger completedCheques = new AtomicInteger();
+        AtomicInteger pages = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-plan-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int index = 0;
+            for (List<ChequeData> group : groups.values()) {
+                File planFile = planFiles.get(index++);
+                futures.add(executor.submit(() -> {
+                    int planPages = writePlan(group, planFile);
+                    Progress progress = new Progress(completedPlans.incrementAndGet(), groups.size(),
+                            completedCheques.addAndGet(group.size()), totalCheques, pages.addAndGet(planPages),
+                            System.currentTimeMillis() - start);
+                    if (onProgress != null) {
+                        onProgress.accept(progress);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            List<File> files = planFiles;
+            if (merged) {
+                File mergedFile = new File(outputDir, "payment-plans-" + LocalDateTime.now().format(fileTimeFormatter) + ".pdf");
+                mergePlans(planFiles, mergedFile);
+                files = List.of(mergedFile);
+            }
+
+            Result result = new Result(files, groups.size(), totalCheques, pages.get(), System.currentTimeMillis() - start);
+            logger.info("Payment plan batch finished: {}", result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Payment plan batch interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            if (merged) {
+                // Temporary plan files
+                for (File planFile : planFiles) {
+                    if (planFile.exists() && !planFile.delete()) {
+                        logger.warn("Could not delete temporary plan file {}", planFile.getAbsolutePath());
+                    }
+                }
+            }
+        }
+    }
+
+    private static int writePlan(List<ChequeData> group, File file) throws IOException {
+        ChequeData first = group.get(0);
+        PDDocument document = PaymentPlanService.generatePaymentPlanPDF(group.iterator(), first.getSignerName(),
+                first.getBeneficiaryName());
+        try {
+            document.save(file);
+            return document.getNumberOfPages();
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Append the plans in order with a scratch-file backed merge, so the merged document
+     * does not have to fit in heap.
+     */
+    private static void mergePlans(List<File> planFiles, File mergedFile) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        merger.setDestinationFileName(mergedFile.getAbsolutePath());
+        for (File planFile : planFiles) {
+            merger.addSource(planFile);
+        }
+        merger.mergeDocuments(PdfDocumentFactory.getMemoryUsageSetting());
+    }
+
+    /**
+     * One output file per group: named after the group in outputDir, or temporary files to
+     * be merged.
+     */
+    private static List<File> planFiles(Map<String, List<ChequeData>> groups, File outputDir, boolean merged) throws IOException {
+        List<File> files = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+        for (String key : groups.keySet()) {
+            if (merged) {
+                files.add(Files.createTempFile("payment-plan-", ".pdf").toFile());
+                continue;
+            }
+            String baseName = "payment-plan-" + safeFileName(key);
+            String name = baseName;
+            for (int i = 2; !usedNames.add(name.toLowerCase(Locale.ROOT)); i++) {
+                name = baseName + "-" + i;
+            }
+            files.add(new File(outputDir, name + ".pdf"));
+        }
+        return files;
+    }
+
+    private static String groupKey(ChequeData cheque, GroupBy groupBy) {
+        if (groupBy == GroupBy.PHONE_NUMBER && cheque.getPhoneNumber() != null) {
+            String digits = cheque.getPhoneNumber().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                return digits;
+            }
+        }
+        String name = cheque.getBeneficiaryName();
+        return name != null && !name.trim().isEmpty() ? name.trim().replaceAll("\\s+", " ") : "unknown";
+    }
+
+    private static String safeFileName(String key) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '-' ? c : '_');
+        }
+        return name.toString();
+    }
+
+    /**
+     * Progress of a running batch, reported after each finished plan.
+     */
+    public static class Progress {
+        private final int completedPlans;
+        private final int totalPlans;
+        private final int completedCheques;
+        private final int totalCheques;
+        private final int pages;
+        private final long elapsedMillis;
+
+        Progress(int completedPlans, int totalPlans, int completedCheques, int totalCheques, int pages, long elapsedMillis) {
+            this.completedPlans = completedPlans;
+            this.totalPlans = totalPlans;
+            this.completedCheques = completedCheques;
+            this.totalCheques = totalCheques;
+            this.pages = pages;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getCompletedPlans() { return completedPlans; }
+        public int getTotalPlans() { return totalPlans; }
+        public int getCompletedCheques() { return completedCheques; }
+        public int getTotalCheques() { return totalCheques; }
+        public int getPages() { return pages; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getFraction() {
+            return totalPlans > 0 ? (double) completedPlans / totalPlans : 1.0;
+        }
+
+        public double getPlansPerSecond() {
+            return elapsedMillis > 0 ? completedPlans * 1000.0 / elapsedMillis : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d/%d plans, %d/%d cheques, %d pages, %.1f plans/s",
+                    completedPlans, totalPlans, completedCheques, totalCheques, pages, getPlansPerSecond());
+        }
+    }
+
+    /**
+     * The files written by a batch and its totals.
+     */
+    public static class Result {
+        private final List<File> files;
+        private final int plans;
+        private final int cheques;
+        private final int pages;
+        private final long elapsedMillis;
+
+        Result(List<File> files, int plans, int cheques, int pages, long elapsedMillis) {
+            this.files = files;
+            this.plans = plans;
+            this.cheques = cheques;
+            this.pages = pages;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<File> getFiles() { return files; }
+        public int getPlans() { return plans; }
+        public int getCheques() { return cheques; }
+        public int getPages() { return pages; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedMillis / 1000.0;
+            return String.format(Locale.ROOT, "%d plan(s), %d cheque(s), %d page(s) in %d file(s), %.2f s (%.1f plans/s, %.1f pages/s)",
+                    plans, cheques, pages, files.size(), seconds,
+                    seconds > 0 ? plans / seconds : 0.0, seconds > 0 ? pages / seconds : 0.0);
+        }
+    }
+}
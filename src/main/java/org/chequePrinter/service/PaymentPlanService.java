@@ -1,12 +1,18 @@
 package org.chequePrinter.service;
 
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.chequePrinter.model.ChequeData;
 import org.chequePrinter.util.ArabicNumberToWords;
+import org.chequePrinter.util.ChequeDates;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
 
 import com.ibm.icu.text.ArabicShaping;
 import com.ibm.icu.text.ArabicShapingException;
@@ -15,19 +21,32 @@ import com.ibm.icu.text.Bidi;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 
 public class PaymentPlanService {
     
+    private static final Logger logger = LoggerUtil.getLogger(PaymentPlanService.class);
+    
     private static final float MARGIN = 50;
     private static final float TITLE_FONT_SIZE = 18;
     private static final float HEADER_FONT_SIZE = 14;
     private static final float CONTENT_FONT_SIZE = 12;
-    private static final float LINE_HEIGHT = 25; // Increased for amount in words
-    private static final int MAX_CHEQUES_PER_PAGE = 16; // Fixed to match actual UI display
+    private static final float LINE_SPACING = 15; // Between wrapped lines of one row
+    private static final float ROW_PADDING = 8;
+    private static final float COLUMN_GAP = 12;
+    private static final float HEADER_BLOCK_HEIGHT = 85; // Title, generation time and signer lines
+    private static final float PAGE_INFO_HEIGHT = 25;
+    private static final float TABLE_HEADER_HEIGHT = 27; // Column titles and the rule under them
+    private static final float FOOTER_HEIGHT = 30; // Page summary line
+
+    private static final String[] COLUMN_TITLES = {"No.", "Date", "Amount", "Amount in Words"};
+    // Widest expected content of the fixed columns; the amount in words gets the rest
+    private static final String[] COLUMN_SAMPLES = {"0000", "00/00/0000", "0000000.00"};
     
     /**
      * Shapes and reorders Arabic text for proper right-to-left rendering.
@@ -68,54 +87,222 @@ public class PaymentPlanService {
     }
     
     public static PDDocument generatePaymentPlanPDF(List<ChequeData> cheques, String signerName) throws IOException {
-        PDDocument document = new PDDocument();
+        return generatePaymentPlanPDF(cheques.iterator(), signerName);
+    }
+    
+    /**
+     * Streaming variant: consumes the cheques one by one and writes each page as soon as it
+     * is full, so only the rows of the current page are held in memory (the document itself
+     * spills to a scratch file, see PdfDocumentFactory). Totals are computed in the same pass
+     * and the "Page X of Y" lines are added once the page count is known.
+     */
+    public static PDDocument generatePaymentPlanPDF(Iterator<ChequeData> cheques, String signerName) throws IOException {
+        return generatePaymentPlanPDF(cheques, signerName, null);
+    }
+    
+    /**
+     * Payment plan for one beneficiary, whose name (when not null) is shown in the title.
+     */
+    public static PDDocument generatePaymentPlanPDF(Iterator<ChequeData> cheques, String signerName,
+                                                   String beneficiaryName) throws IOException {
+        long start = System.currentTimeMillis();
+        PDDocument document = PdfDocumentFactory.createDocument();
         
-        if (cheques.isEmpty()) {
-            // Create a single page with "No cheques found" message
-            createEmptyPage(document, signerName);
+        try {
+            // Load the font once per document; loading it per page embeds a new copy each time
+            PDType0Font font = loadFont(document);
+            
+            if (!cheques.hasNext()) {
+                // Create a single page with "No cheques found" message
+                createEmptyPage(document, font, signerName);
+                return document;
+            }
+            
+            String title = beneficiaryName != null ? "Payment Plan - " + beneficiaryName : "Payment Plan";
+            PlanWriter writer = new PlanWriter(document, font, createTableLayout(font), title, signerName);
+            while (cheques.hasNext()) {
+                writer.add(cheques.next());
+            }
+            writer.finish();
+            
+            logger.info("Payment plan generated: {} cheque(s) on {} page(s) in {} ms",
+                    writer.totalCheques, document.getNumberOfPages(), System.currentTimeMillis() - start);
             return document;
+        } catch (IOException | RuntimeException e) {
+            // Never leak a half-built document (and its scratch file) to the caller
+            PdfDocumentFactory.closeQuietly(document);
+            throw e;
         }
+    }
+    
+    /**
+     * Fills pages row by row up to their measured height. A row never spans pages, and
+     * every page takes at least one row, so no row is ever dropped.
+     */
+    private static class PlanWriter {
+        private final PDDocument document;
+        private final PDType0Font font;
+        private final PdfTableLayout table;
+        private final String title;
+        private final String signerName;
         
-        // Calculate total amount for ALL cheques
-        double totalAmount = cheques.stream()
-            .mapToDouble(c -> {
-                try {
-                    return Double.parseDouble(c.getAmountNumeric());
-                } catch (NumberFormatException e) {
-                    return 0.0;
-                }
-            })
-            .sum();
+        private final List<PdfTableLayout.Row> pendingRows = new ArrayList<>();
+        private float pendingHeight;
+        // Becomes true when the first page overflows; from then on pages leave room for "Page X of Y"
+        private boolean multiPage;
+        private PDFormXObject headerForm;
+        private int totalCheques;
+        private long totalPiasters;
+        
+        PlanWriter(PDDocument document, PDType0Font font, PdfTableLayout table, String title, String signerName) {
+            this.document = document;
+            this.font = font;
+            this.table = table;
+            this.title = title;
+            this.signerName = signerName;
+        }
         
-        int totalCheques = cheques.size();
-        int totalPages = (int) Math.ceil((double) totalCheques / MAX_CHEQUES_PER_PAGE);
+        void add(ChequeData cheque) throws IOException {
+            totalCheques++;
+            Long amount = parsePiasters(cheque.getAmountNumeric());
+            if (amount != null) {
+                totalPiasters += amount;
+            }
+            
+            PdfTableLayout.Row row = layoutChequeRow(table, cheque, amount, totalCheques);
+            pendingRows.add(row);
+            pendingHeight += row.getHeight();
+            
+            if (pendingRows.size() > 1 && pendingHeight > tableHeight(multiPage)) {
+                multiPage = true;
+                // The page info line shrinks the table, so more than one page may be full now
+                while (pendingRows.size() > 1 && pendingHeight > tableHeight(true)) {
+                    writePage(false);
+                }
+            }
+        }
         
-        System.out.println("=== PAYMENT PLAN DEBUG ===");
-        System.out.println("Total cheques: " + totalCheques);
-        System.out.println("Cheques per page: " + MAX_CHEQUES_PER_PAGE);
-        System.out.println("Total pages needed: " + totalPages);
+        void finish() throws IOException {
+            while (!pendingRows.isEmpty()) {
+                writePage(true);
+            }
+            if (multiPage) {
+                addPageNumbers();
+            }
+        }
         
-        // Process cheques in batches of MAX_CHEQUES_PER_PAGE
-        for (int pageNum = 0; pageNum < totalPages; pageNum++) {
-            int startIndex = pageNum * MAX_CHEQUES_PER_PAGE;
-            int endIndex = Math.min(startIndex + MAX_CHEQUES_PER_PAGE, totalCheques);
+        /**
+         * Write as many pending rows as fit on one page.
+         */
+        private void writePage(boolean allowLast) throws IOException {
+            if (headerForm == null) {
+                // Static page header shared by all pages
+                headerForm = createHeaderForm(document, font, table, title, signerName, multiPage);
+            }
             
-            System.out.println("Page " + (pageNum + 1) + ": Cheques " + (startIndex + 1) + " to " + endIndex);
+            float available = tableHeight(multiPage);
+            int count = 0;
+            float height = 0;
+            while (count < pendingRows.size()
+                    && (count == 0 || height + pendingRows.get(count).getHeight() <= available)) {
+                height += pendingRows.get(count).getHeight();
+                count++;
+            }
             
-            List<ChequeData> pageData = new ArrayList<>(cheques.subList(startIndex, endIndex));
-            createPaymentPlanPage(document, pageData, signerName, pageNum + 1, totalPages, totalAmount, totalCheques);
+            List<PdfTableLayout.Row> pageRows = pendingRows.subList(0, count);
+            boolean lastPage = allowLast && count == pendingRows.size();
+            createPaymentPlanPage(document, font, table, headerForm, pageRows, multiPage, lastPage,
+                    totalPiasters, totalCheques);
+            pageRows.clear();
+            pendingHeight -= height;
+        }
+        
+        private void addPageNumbers() throws IOException {
+            int totalPages = document.getNumberOfPages();
+            for (int i = 0; i < totalPages; i++) {
+                PDPage page = document.getPage(i);
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page,
+                        PDPageContentStream.AppendMode.APPEND, true, true)) {
+                    contentStream.beginText();
+                    contentStream.setFont(font, CONTENT_FONT_SIZE);
+                    contentStream.newLineAtOffset(MARGIN, page.getMediaBox().getHeight() - MARGIN - HEADER_BLOCK_HEIGHT);
+                    contentStream.showText(shapeAndReorderArabicText("Page " + (i + 1) + " of " + totalPages));
+                    contentStream.endText();
+                }
+            }
+        }
+    }
+    
+    /**
+     * The exact amount in piasters, or null when it is missing or not a number.
+     */
+    private static Long parsePiasters(String amount) {
+        if (amount == null || amount.isEmpty()) {
+            return null;
+        }
+        try {
+            return ArabicNumberToWords.toPiasters(new BigDecimal(amount.trim()));
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Column widths measured from the titles and the widest expected values; the amount
+     * in words column takes the remaining width of the page.
+     */
+    private static PdfTableLayout createTableLayout(PDType0Font font) throws IOException {
+        float tableWidth = PDRectangle.A4.getWidth() - 2 * MARGIN;
+        float[] widths = new float[COLUMN_TITLES.length];
+        float used = 0;
+        for (int i = 0; i < COLUMN_SAMPLES.length; i++) {
+            float titleWidth = font.getStringWidth(COLUMN_TITLES[i]) / 1000 * HEADER_FONT_SIZE;
+            float sampleWidth = font.getStringWidth(COLUMN_SAMPLES[i]) / 1000 * CONTENT_FONT_SIZE;
+            widths[i] = Math.max(titleWidth, sampleWidth) + COLUMN_GAP;
+            used += widths[i];
+        }
+        widths[widths.length - 1] = tableWidth - used;
+        return new PdfTableLayout(font, CONTENT_FONT_SIZE, LINE_SPACING, ROW_PADDING, COLUMN_GAP, MARGIN, widths,
+                PaymentPlanService::shapeAndReorderArabicText);
+    }
+    
+    private static PdfTableLayout.Row layoutChequeRow(PdfTableLayout table, ChequeData cheque, Long piasters,
+                                                      int chequeNumber) throws IOException {
+        // Convert amount to Arabic words and add "جنيها مصريا لا غير"
+        String amountInWords;
+        if (cheque.getAmountNumeric() == null || cheque.getAmountNumeric().isEmpty()) {
+            amountInWords = "N/A";
+        } else if (piasters != null && piasters >= 0) {
+            amountInWords = ArabicNumberToWords.convertPiasters(piasters) + " جنيها مصريا لا غير";
+        } else {
+            amountInWords = "مبلغ غير صحيح";
         }
         
-        return document;
+        return table.layoutRow(
+                String.valueOf(chequeNumber),
+                cheque.getDate() != null ? cheque.getDateText(ChequeDates.ISO_FORMAT) : "N/A",
+                cheque.getAmountNumeric() != null ? cheque.getAmountNumeric() : "N/A",
+                amountInWords);
+    }
+    
+    /**
+     * Height left for table rows between the header block and the page summary.
+     */
+    private static float tableHeight(boolean showPageInfo) {
+        return tableTop(showPageInfo) - MARGIN - FOOTER_HEIGHT;
+    }
+    
+    private static float tableTop(boolean showPageInfo) {
+        return PDRectangle.A4.getHeight() - MARGIN - HEADER_BLOCK_HEIGHT
+                - (showPageInfo ? PAGE_INFO_HEIGHT : 0) - TABLE_HEADER_HEIGHT;
     }
     
-    private static void createEmptyPage(PDDocument document, String signerName) throws IOException {
+    private static void createEmptyPage(PDDocument document, PDType0Font font, String signerName) throws IOException {
         // Create A4 Portrait page explicitly
         PDPage page = new PDPage(PDRectangle.A4);
         document.addPage(page);
         
         try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-            PDType0Font font = loadFont(document);
             float yPosition = page.getMediaBox().getHeight() - MARGIN;
             
             // Title
@@ -145,21 +332,26 @@ public class PaymentPlanService {
         }
     }
     
-    private static void createPaymentPlanPage(PDDocument document, List<ChequeData> cheques,
-                                            String signerName, int currentPage, int totalPages, double totalAmount, int totalCheques) throws IOException {
-        // Create A4 Portrait page explicitly
-        PDPage page = new PDPage(PDRectangle.A4);
-        document.addPage(page);
+    /**
+     * Renders the part of the page header that is identical on every page of the report
+     * into a form XObject, so it is shaped and written once and referenced from each page.
+     */
+    private static PDFormXObject createHeaderForm(PDDocument document, PDType0Font font, PdfTableLayout table,
+                                                  String title, String signerName, boolean showPageInfo) throws IOException {
+        PDRectangle pageSize = PDRectangle.A4;
+        PDFormXObject form = new PDFormXObject(document);
+        form.setBBox(new PDRectangle(pageSize.getWidth(), pageSize.getHeight()));
+        form.setResources(new PDResources());
         
-        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-            PDType0Font font = loadFont(document);
-            float yPosition = page.getMediaBox().getHeight() - MARGIN;
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, form,
+                form.getContentStream().createOutputStream(COSName.FLATE_DECODE))) {
+            float yPosition = pageSize.getHeight() - MARGIN;
             
             // Title
             contentStream.beginText();
             contentStream.setFont(font, TITLE_FONT_SIZE);
             contentStream.newLineAtOffset(MARGIN, yPosition);
-            contentStream.showText(shapeAndReorderArabicText("Payment Plan"));
+            contentStream.showText(shapeAndReorderArabicText(title));
             contentStream.endText();
             
             yPosition -= 30;
@@ -183,129 +375,63 @@ public class PaymentPlanService {
             
             yPosition -= 30;
             
-            // Page info
-            if (totalPages > 1) {
+            // Leave room for the per-page "Page X of Y" line
+            if (showPageInfo) {
+                yPosition -= PAGE_INFO_HEIGHT;
+            }
+            
+            // Table headers at the measured column positions
+            for (int i = 0; i < COLUMN_TITLES.length; i++) {
                 contentStream.beginText();
-                contentStream.setFont(font, CONTENT_FONT_SIZE);
-                contentStream.newLineAtOffset(MARGIN, yPosition);
-                contentStream.showText(shapeAndReorderArabicText("Page " + currentPage + " of " + totalPages));
+                contentStream.setFont(font, HEADER_FONT_SIZE);
+                contentStream.newLineAtOffset(table.getColumnX(i), yPosition);
+                contentStream.showText(shapeAndReorderArabicText(COLUMN_TITLES[i]));
                 contentStream.endText();
-                yPosition -= 25;
             }
             
-            // Table headers (added Amount in Words column)
-            contentStream.beginText();
-            contentStream.setFont(font, HEADER_FONT_SIZE);
-            contentStream.newLineAtOffset(MARGIN, yPosition);
-            contentStream.showText(shapeAndReorderArabicText("No."));
-            contentStream.newLineAtOffset(50, 0);
-            contentStream.showText(shapeAndReorderArabicText("Date"));
-            contentStream.newLineAtOffset(100, 0);
-            contentStream.showText(shapeAndReorderArabicText("Amount"));
-            contentStream.newLineAtOffset(120, 0);
-            contentStream.showText(shapeAndReorderArabicText("Amount in Words"));
-            contentStream.endText();
-            
             yPosition -= 25;
             
             // Draw line under headers
             contentStream.moveTo(MARGIN, yPosition);
-            contentStream.lineTo(page.getMediaBox().getWidth() - MARGIN, yPosition);
+            contentStream.lineTo(pageSize.getWidth() - MARGIN, yPosition);
             contentStream.stroke();
+        }
+        return form;
+    }
+    
+    private static void createPaymentPlanPage(PDDocument document, PDType0Font font, PdfTableLayout table, PDFormXObject headerForm,
+                                              List<PdfTableLayout.Row> rows, boolean showPageInfo, boolean lastPage,
+                                              long totalPiasters, int totalCheques) throws IOException {
+        // Create A4 Portrait page explicitly
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+            // Title, generation time, signer, table headers and rule come from the shared header form
+            // (the "Page X of Y" line is added once all pages are written)
+            contentStream.drawForm(headerForm);
             
-            yPosition -= 10;
-            
-            // Cheque data - use 1-based index for display
-            for (int i = 0; i < cheques.size(); i++) {
-                ChequeData cheque = cheques.get(i);
-                // Calculate the actual cheque number based on page and position
-                int chequeNumber = (currentPage - 1) * MAX_CHEQUES_PER_PAGE + i + 1;
-                
-                contentStream.beginText();
-                contentStream.setFont(font, CONTENT_FONT_SIZE);
-                contentStream.newLineAtOffset(MARGIN, yPosition);
-                contentStream.showText(shapeAndReorderArabicText(String.valueOf(chequeNumber)));
-                contentStream.newLineAtOffset(50, 0);
-                contentStream.showText(shapeAndReorderArabicText(cheque.getDate() != null ? cheque.getDate() : "N/A"));
-                contentStream.newLineAtOffset(100, 0);
-                contentStream.showText(shapeAndReorderArabicText(cheque.getAmountNumeric() != null ? cheque.getAmountNumeric() : "N/A"));
-                contentStream.newLineAtOffset(120, 0);
-                
-                // Convert amount to Arabic words and add "جنيها مصريا لا غير"
-                String amountInWords = "";
-                if (cheque.getAmountNumeric() != null && !cheque.getAmountNumeric().isEmpty()) {
-                    try {
-                        double amount = Double.parseDouble(cheque.getAmountNumeric());
-                        amountInWords = ArabicNumberToWords.convert(amount) + " جنيها مصريا لا غير";
-                    } catch (NumberFormatException e) {
-                        amountInWords = "مبلغ غير صحيح";
-                    }
-                } else {
-                    amountInWords = "N/A";
-                }
-                
-                // Handle long Arabic text by wrapping to multiple lines
-                if (amountInWords.length() > 35) {
-                    // Split at word boundaries for Arabic text
-                    String[] words = amountInWords.split(" ");
-                    StringBuilder firstLine = new StringBuilder();
-                    StringBuilder secondLine = new StringBuilder();
-                    
-                    boolean useSecondLine = false;
-                    for (String word : words) {
-                        if (!useSecondLine && (firstLine.length() + word.length() + 1) <= 35) {
-                            if (firstLine.length() > 0) firstLine.append(" ");
-                            firstLine.append(word);
-                        } else {
-                            useSecondLine = true;
-                            if (secondLine.length() > 0) secondLine.append(" ");
-                            secondLine.append(word);
-                        }
-                    }
-                    
-                    // Display first line
-                    contentStream.showText(shapeAndReorderArabicText(firstLine.toString()));
-                    contentStream.endText();
-                    
-                    // Display second line if needed
-                    if (secondLine.length() > 0) {
-                        yPosition -= 12; // Move down for second line
-                        contentStream.beginText();
-                        contentStream.setFont(font, CONTENT_FONT_SIZE);
-                        contentStream.newLineAtOffset(MARGIN + 270, yPosition); // Same position as Amount in Words column
-                        contentStream.showText(shapeAndReorderArabicText(secondLine.toString()));
-                        contentStream.endText();
-                    }
-                } else {
-                    // Short text, display normally
-                    contentStream.showText(shapeAndReorderArabicText(amountInWords));
-                    contentStream.endText();
-                }
-                
-                yPosition -= LINE_HEIGHT; // Move to next line for next record
-                
-                // Check if we need to break to next page (shouldn't happen with proper pagination)
-                if (yPosition < MARGIN + 50) {
-                    break;
-                }
+            // Rows were paginated to fit between the table header and the summary line
+            float yPosition = tableTop(showPageInfo);
+            for (PdfTableLayout.Row row : rows) {
+                table.drawRow(contentStream, row, yPosition);
+                yPosition -= row.getHeight();
             }
             
             // Summary at bottom
             yPosition -= 20;
-            if (yPosition > MARGIN + 30) {
-                contentStream.beginText();
-                contentStream.setFont(font, HEADER_FONT_SIZE);
-                contentStream.newLineAtOffset(MARGIN, yPosition);
-                
-                if (currentPage == totalPages) {
-                    // Show total for ALL cheques on last page
-                    contentStream.showText(shapeAndReorderArabicText("Total Cheques: " + totalCheques +
-                                         " | Total Amount: " + String.format("%.2f", totalAmount)));
-                } else {
-                    contentStream.showText(shapeAndReorderArabicText("Cheques on this page: " + cheques.size()));
-                }
-                contentStream.endText();
+            contentStream.beginText();
+            contentStream.setFont(font, HEADER_FONT_SIZE);
+            contentStream.newLineAtOffset(MARGIN, Math.max(yPosition, MARGIN));
+            
+            if (lastPage) {
+                // Show total for ALL cheques on last page
+                contentStream.showText(shapeAndReorderArabicText("Total Cheques: " + totalCheques +
+                                     " | Total Amount: " + BigDecimal.valueOf(totalPiasters, 2).toPlainString()));
+            } else {
+                contentStream.showText(shapeAndReorderArabicText("Cheques on this page: " + rows.size()));
             }
+            contentStream.endText();
         }
     }
     
@@ -0,0 +1,73 @@
+package org.chequePrinter.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Creates the PDDocuments used for cheque and payment plan generation.
+ *
+ * When scratch-file mode is enabled (the default) each document keeps at most
+ * pdf.memory.maxHeapMb of stream data in heap and spills the rest to a temporary
+ * scratch file, so large batches do not grow the heap with the number of pages.
+ */
+public class PdfDocumentFactory {
+
+    private static final Logger logger = LoggerUtil.getLogger(PdfDocumentFactory.class);
+
+    static final String SCRATCH_FILE_KEY = "pdf.memory.scratchFile";
+    static final String MAX_HEAP_MB_KEY = "pdf.memory.maxHeapMb";
+    static final String TEMP_DIR_KEY = "pdf.memory.tempDir";
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    /**
+     * Create an empty document using the configured memory usage setting.
+     */
+    public static PDDocument createDocument() {
+        return new PDDocument(getMemoryUsageSetting());
+    }
+
+    /**
+     * Build the memory usage setting from configuration.
+     */
+    public static MemoryUsageSetting getMemoryUsageSetting() {
+        if (!AppConfig.getBoolean(SCRATCH_FILE_KEY, true)) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+
+        long maxHeapBytes = Math.max(1, AppConfig.getLong(MAX_HEAP_MB_KEY, 32)) * BYTES_PER_MB;
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(maxHeapBytes);
+
+        String tempDir = AppConfig.getString(TEMP_DIR_KEY, null);
+        if (tempDir != null) {
+            File dir = new File(tempDir);
+            if (dir.isDirectory() || dir.mkdirs()) {
+                setting.setTempDir(dir);
+            } else {
+                logger.warn("PDF scratch directory {} is not usable, falling back to system temp", dir.getAbsolutePath());
+            }
+        }
+        return setting;
+    }
+
+    /**
+     * Close a document, logging instead of throwing. Used on error paths so the
+     * original exception is not masked and scratch files are always released.
+     */
+    public static void closeQuietly(PDDocument document) {
+        if (document == null) {
+            return;
+        }
+        try {
+            document.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close PDF document: {}", e.getMessage());
+        }
+    }
+}
@@ -1,22 +1,37 @@
 package org.chequePrinter.service;
 
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
 import org.chequePrinter.model.PdfContent;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
 
 import com.ibm.icu.text.ArabicShaping;
 import com.ibm.icu.text.ArabicShapingException;
 import com.ibm.icu.text.Bidi;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.io.File;
 import java.io.InputStream;
 
 public class PdfGenerator {
+
+    private static final Logger logger = LoggerUtil.getLogger(PdfGenerator.class);
+
+    // N-up imposition layout, in points
+    private static final float IMPOSITION_MARGIN = 18;
+    private static final float CUT_MARK_LENGTH = 10;
+    private static final float CUT_MARK_GAP = 3;
+
     /**
      * Shapes and reorders Arabic text for proper right-to-left rendering.
      *
@@ -109,17 +124,34 @@ public class PdfGenerator {
         }
     }
 
+    /**
+     * Shape and reorder a sample so ICU loads its Arabic shaping and bidi data before the
+     * first cheque is rendered.
+     */
+    public static void warmUp() {
+        shapeAndReorderArabicText("شيك بمبلغ 1000 جنيه");
+    }
+
     public static PDDocument generatePdf(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent, String fontPath) throws IOException {
-        return generatePdf(pageWidth, pageHeight, allPagesContent, fontPath, null);
+        return generatePdfTextOnly(pageWidth, pageHeight, allPagesContent, Collections.emptyList(), fontPath);
     }
     
     public static PDDocument generatePdf(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent, String fontPath, String templateImagePath) throws IOException {
         // Template image path parameter is ignored - only text fields are printed
-        return generatePdfTextOnly(pageWidth, pageHeight, allPagesContent, fontPath);
+        return generatePdfTextOnly(pageWidth, pageHeight, allPagesContent, Collections.emptyList(), fontPath);
+    }
+    
+    /**
+     * Generates a PDF where sharedContent (e.g. the template's fixed text) is identical on every page.
+     * The shared content is shaped and written once into a form XObject that each page references,
+     * instead of being emitted as a separate text run per page.
+     */
+    public static PDDocument generatePdf(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent, List<PdfContent> sharedContent, String fontPath) throws IOException {
+        return generatePdfTextOnly(pageWidth, pageHeight, allPagesContent, sharedContent, fontPath);
     }
     
-    private static PDDocument generatePdfTextOnly(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent, String fontPath) throws IOException {
-        PDDocument document = new PDDocument();
+    private static PDDocument generatePdfTextOnly(float pageWidth, float pageHeight, List<List<PdfContent>> allPagesContent, List<PdfContent> sharedContent, String fontPath) throws IOException {
+        PDDocument document = PdfDocumentFactory.createDocument();
         
         // Debug: Print the actual dimensions being used
         System.out.println("=== PDF GENERATION DEBUG ===");
@@ -130,43 +162,10 @@ public class PdfGenerator {
         System.out.println("============================");
 
         try {
-            // Use system font that supports Arabic instead of the corrupted Amiri font
-            PDType0Font font = null;
-            
-            System.out.println("Attempting to load system fonts for Arabic support...");
-            
-            try {
-                // Try Arial Unicode MS first (best Arabic support)
-                font = PDType0Font.load(document, new File("C:/Windows/Fonts/arialuni.ttf"));
-                System.out.println("Using Arial Unicode MS font (best Arabic support)");
-            } catch (Exception e) {
-                System.err.println("Arial Unicode MS not found: " + e.getMessage());
-                try {
-                    // Try regular Arial
-                    font = PDType0Font.load(document, new File("C:/Windows/Fonts/arial.ttf"));
-                    System.out.println("Using system Arial font");
-                } catch (Exception e2) {
-                    System.err.println("Arial not found: " + e2.getMessage());
-                    try {
-                        // Try Tahoma (good Arabic support)
-                        font = PDType0Font.load(document, new File("C:/Windows/Fonts/tahoma.ttf"));
-                        System.out.println("Using system Tahoma font");
-                    } catch (Exception e3) {
-                        System.err.println("Tahoma not found: " + e3.getMessage());
-                        try {
-                            // Last resort: try the custom font
-                            InputStream fontStream = PdfGenerator.class.getClassLoader().getResourceAsStream(fontPath);
-                            if (fontStream != null) {
-                                font = PDType0Font.load(document, fontStream);
-                                System.out.println("Using custom font as last resort: " + fontPath);
-                            }
-                        } catch (Exception e4) {
-                            System.err.println("All fonts failed: " + e4.getMessage());
-                            throw new IOException("Could not load any suitable font for Arabic text");
-                        }
-                    }
-                }
-            }
+            PDType0Font font = loadFont(document, fontPath);
+
+            // Content shared by all pages is rendered once and referenced from each page
+            PDFormXObject sharedForm = createSharedForm(document, font, pageWidth, pageHeight, sharedContent);
 
             if (allPagesContent == null || allPagesContent.isEmpty()) {
                 // If no content, add at least one blank page with custom dimensions
@@ -191,29 +190,21 @@ public class PdfGenerator {
                     System.out.println("===========================");
 
                     try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                        if (sharedForm != null) {
+                            contentStream.drawForm(sharedForm);
+                        }
                         // Add only text content (no background image)
                         if (pageContents != null && !pageContents.isEmpty()) {
                             for (PdfContent content : pageContents) {
-                                contentStream.setFont(font, content.fontSize);
-                                contentStream.beginText();
-                                contentStream.newLineAtOffset(content.x, content.y);
-
-                                // Only format numbers in amount field (check if y-coordinate matches amount field position)
-                                String textToProcess = content.text;
-                                // Check if this is the amount field by its y-coordinate (you may need to adjust this check based on your layout)
-                                if (Math.abs(content.y - 67) < 5) { // 67 is the y-coordinate for amount field from bank.json
-                                    textToProcess = formatNumbersInText(content.text);
-                                }
-                                String processedText = shapeAndReorderArabicText(textToProcess);
-                                contentStream.showText(processedText);
-                                contentStream.endText();
+                                drawContent(contentStream, font, content);
                             }
                         }
                     }
                 }
             }
         } catch (Exception e) {
-            // Catch any exception during PDF generation and rethrow as IOException
+            // Release the document (and its scratch file) before rethrowing as IOException
+            PdfDocumentFactory.closeQuietly(document);
             throw new IOException("Error generating PDF: " + e.getMessage(), e);
         }
         
@@ -224,4 +215,206 @@ public class PdfGenerator {
 
         return document;
     }
+
+    /**
+     * Generates an N-up document: cheques of chequeWidth x chequeHeight points are placed
+     * on A4 portrait sheets, as many as fit (capped at maxPerSheet), with optional cut marks.
+     * Sheets are not rotated, they are fed to the printer as ordinary A4 pages.
+     */
+    public static PDDocument generateImposedPdf(float chequeWidth, float chequeHeight, List<List<PdfContent>> allChequesContent,
+                                                List<PdfContent> sharedContent, String fontPath,
+                                                int maxPerSheet, boolean cutMarks) throws IOException {
+        PDRectangle sheetSize = PDRectangle.A4;
+        float usableWidth = sheetSize.getWidth() - 2 * IMPOSITION_MARGIN;
+        float usableHeight = sheetSize.getHeight() - 2 * IMPOSITION_MARGIN;
+
+        int columns = (int) Math.floor(usableWidth / chequeWidth);
+        int rows = (int) Math.floor(usableHeight / chequeHeight);
+        int slotsPerSheet = Math.min(columns * rows, Math.max(1, maxPerSheet));
+        if (slotsPerSheet < 1) {
+            throw new IOException("Cheque size " + chequeWidth + " x " + chequeHeight + " points does not fit on an A4 sheet");
+        }
+        // Fill columns first, then use only as many rows as the cap allows
+        columns = Math.min(columns, slotsPerSheet);
+        rows = (int) Math.ceil((double) slotsPerSheet / columns);
+
+        // Center the grid of slots on the sheet
+        float gridLeft = (sheetSize.getWidth() - columns * chequeWidth) / 2;
+        float gridTop = (sheetSize.getHeight() + rows * chequeHeight) / 2;
+
+        logger.debug("Imposing {} x {} pt cheques: {} column(s) x {} row(s), {} per A4 sheet",
+                chequeWidth, chequeHeight, columns, rows, slotsPerSheet);
+
+        PDDocument document = PdfDocumentFactory.createDocument();
+        try {
+            PDType0Font font = loadFont(document, fontPath);
+            PDFormXObject sharedForm = createSharedForm(document, font, chequeWidth, chequeHeight, sharedContent);
+
+            List<List<PdfContent>> cheques = allChequesContent != null ? allChequesContent : Collections.emptyList();
+            if (cheques.isEmpty()) {
+                document.addPage(new PDPage(sheetSize));
+            }
+
+            for (int first = 0; first < cheques.size(); first += slotsPerSheet) {
+                PDPage sheet = new PDPage(sheetSize);
+                document.addPage(sheet);
+
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, sheet)) {
+                    int onSheet = Math.min(slotsPerSheet, cheques.size() - first);
+                    for (int slot = 0; slot < onSheet; slot++) {
+                        float slotX = gridLeft + (slot % columns) * chequeWidth;
+                        float slotY = gridTop - (slot / columns + 1) * chequeHeight;
+
+                        // Draw the cheque in its own coordinate system, offset to the slot
+                        contentStream.saveGraphicsState();
+                        contentStream.transform(Matrix.getTranslateInstance(slotX, slotY));
+                        if (sharedForm != null) {
+                            contentStream.drawForm(sharedForm);
+                        }
+                        List<PdfContent> chequeContents = cheques.get(first + slot);
+                        if (chequeContents != null) {
+                            for (PdfContent content : chequeContents) {
+                                drawContent(contentStream, font, content);
+                            }
+                        }
+                        contentStream.restoreGraphicsState();
+                    }
+
+                    if (cutMarks) {
+                        int usedColumns = Math.min(columns, onSheet);
+                        int usedRows = (int) Math.ceil((double) onSheet / columns);
+                        drawCutMarks(contentStream, gridLeft, gridTop, usedColumns, usedRows, chequeWidth, chequeHeight);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Release the document (and its scratch file) before rethrowing as IOException
+            PdfDocumentFactory.closeQuietly(document);
+            throw new IOException("Error generating imposed PDF: " + e.getMessage(), e);
+        }
+
+        return document;
+    }
+
+    /**
+     * Draws short crop lines outside the grid of slots, in line with every trim line. The
+     * slots touch each other, so marks between them would end up on the neighbouring cheque.
+     */
+    private static void drawCutMarks(PDPageContentStream contentStream, float left, float top, int columns, int rows,
+                                     float width, float height) throws IOException {
+        float right = left + columns * width;
+        float bottom = top - rows * height;
+        contentStream.setLineWidth(0.3f);
+        for (int column = 0; column <= columns; column++) {
+            float x = left + column * width;
+            // Above and below the grid
+            contentStream.moveTo(x, top + CUT_MARK_GAP);
+            contentStream.lineTo(x, top + CUT_MARK_GAP + CUT_MARK_LENGTH);
+            contentStream.moveTo(x, bottom - CUT_MARK_GAP);
+            contentStream.lineTo(x, bottom - CUT_MARK_GAP - CUT_MARK_LENGTH);
+        }
+        for (int row = 0; row <= rows; row++) {
+            float y = top - row * height;
+            // Left and right of the grid
+            contentStream.moveTo(left - CUT_MARK_GAP, y);
+            contentStream.lineTo(left - CUT_MARK_GAP - CUT_MARK_LENGTH, y);
+            contentStream.moveTo(right + CUT_MARK_GAP, y);
+            contentStream.lineTo(right + CUT_MARK_GAP + CUT_MARK_LENGTH, y);
+        }
+        contentStream.stroke();
+    }
+
+    private static PDType0Font loadFont(PDDocument document, String fontPath) throws IOException {
+        // Use system font that supports Arabic instead of the corrupted Amiri font
+        PDType0Font font = null;
+        
+        System.out.println("Attempting to load system fonts for Arabic support...");
+        
+        try {
+            // Try Arial Unicode MS first (best Arabic support)
+            font = PDType0Font.load(document, new File("C:/Windows/Fonts/arialuni.ttf"));
+            System.out.println("Using Arial Unicode MS font (best Arabic support)");
+        } catch (Exception e) {
+            System.err.println("Arial Unicode MS not found: " + e.getMessage());
+            try {
+                // Try regular Arial
+                font = PDType0Font.load(document, new File("C:/Windows/Fonts/arial.ttf"));
+                System.out.println("Using system Arial font");
+            } catch (Exception e2) {
+                System.err.println("Arial not found: " + e2.getMessage());
+                try {
+                    // Try Tahoma (good Arabic support)
+                    font = PDType0Font.load(document, new File("C:/Windows/Fonts/tahoma.ttf"));
+                    System.out.println("Using system Tahoma font");
+                } catch (Exception e3) {
+                    System.err.println("Tahoma not found: " + e3.getMessage());
+                    try {
+                        // Last resort: try the custom font
+                        InputStream fontStream = PdfGenerator.class.getClassLoader().getResourceAsStream(fontPath);
+                        if (fontStream != null) {
+                            font = PDType0Font.load(document, fontStream);
+                            System.out.println("Using custom font as last resort: " + fontPath);
+                        }
+                    } catch (Exception e4) {
+                        System.err.println("All fonts failed: " + e4.getMessage());
+                        throw new IOException("Could not load any suitable font for Arabic text");
+                    }
+                }
+            }
+        }
+
+        if (font == null) {
+            throw new IOException("Could not load any suitable font for Arabic text");
+        }
+        return font;
+    }
+
+    private static PDFormXObject createSharedForm(PDDocument document, PDType0Font font, float pageWidth, float pageHeight,
+                                                  List<PdfContent> sharedContent) throws IOException {
+        if (sharedContent == null || sharedContent.isEmpty()) {
+            return null;
+        }
+
+        PDFormXObject form = new PDFormXObject(document);
+        form.setBBox(new PDRectangle(pageWidth, pageHeight));
+        form.setResources(new PDResources());
+
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, form,
+                form.getContentStream().createOutputStream(COSName.FLATE_DECODE))) {
+            for (PdfContent content : sharedContent) {
+                drawContent(contentStream, font, content);
+            }
+        }
+        return form;
+    }
+
+    private static void drawContent(PDPageContentStream contentStream, PDType0Font font, PdfContent content) throws IOException {
+        contentStream.setFont(font, content.fontSize);
+        contentStream.beginText();
+        contentStream.newLineAtOffset(content.x, content.y);
+        contentStream.showText(prepareText(content));
+        contentStream.endText();
+    }
+
+    /**
+     * The text exactly as it is drawn: amount formatted, Arabic shaped and in visual order.
+     * Shared with ChequePrintable so both print paths produce the same glyphs.
+     */
+    static String prepareText(PdfContent content) {
+        return shapeAndReorderArabicText(formatText(content));
+    }
+
+    /**
+     * The text as it is printed but before Arabic shaping, for renderers that shape text
+     * themselves (the canvas preview).
+     */
+    public static String formatText(PdfContent content) {
+        // Only format numbers in amount field (check if y-coordinate matches amount field position)
+        String textToProcess = content.text;
+        // Check if this is the amount field by its y-coordinate (you may need to adjust this check based on your layout)
+        if (Math.abs(content.y - 67) < 5) { // 67 is the y-coordinate for amount field from bank.json
+            textToProcess = formatNumbersInText(content.text);
+        }
+        return textToProcess;
+    }
 }
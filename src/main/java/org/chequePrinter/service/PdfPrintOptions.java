@@ -0,0 +1,123 @@
+package org.chequePrinter.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.printing.PDFPrintable;
+import org.apache.pdfbox.printing.Scaling;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.chequePrinter.model.PrinterProfile;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.Locale;
+
+/**
+ * How PDF pages are handed to the printer: the print.pdf.* settings, overridden by the
+ * options stored in the printer profile of the job.
+ *
+ * A dpi of 0 (the default) lets PDFBox draw each page as vector graphics; a positive dpi
+ * rasterizes every page to a bitmap of that resolution first, which some drivers need but
+ * which makes the spool much larger. The java2d renderer keeps cheque text as font glyphs.
+ */
+public class PdfPrintOptions {
+
+    private static final Logger logger = LoggerUtil.getLogger(PdfPrintOptions.class);
+
+    static final String DPI_KEY = "print.pdf.dpi";
+    static final String SUBSAMPLING_KEY = "print.pdf.subsampling";
+    static final String SCALING_KEY = "print.pdf.scaling";
+    static final String CENTER_KEY = "print.pdf.center";
+    static final String RENDERER_KEY = "print.renderer";
+
+    private static final String RENDERER_JAVA2D = "java2d";
+
+    private final float dpi;
+    private final boolean subsampling;
+    private final Scaling scaling;
+    private final boolean center;
+    private final boolean java2dRenderer;
+
+    private PdfPrintOptions(float dpi, boolean subsampling, Scaling scaling, boolean center, boolean java2dRenderer) {
+        this.dpi = dpi;
+        this.subsampling = subsampling;
+        this.scaling = scaling;
+        this.center = center;
+        this.java2dRenderer = java2dRenderer;
+    }
+
+    /**
+     * The options from the application settings only.
+     */
+    public static PdfPrintOptions defaults() {
+        return forProfile(null);
+    }
+
+    /**
+     * The options for the printer profile stored under profileKey (settings for anything
+     * the profile does not set).
+     */
+    public static PdfPrintOptions forProfile(String profileKey) {
+        PrinterProfile profile = PrinterProfileService.getProfile(profileKey);
+
+        float dpi = profile != null && profile.getDpi() != null
+                ? profile.getDpi() : (float) AppConfig.getInt(DPI_KEY, 0);
+        boolean subsampling = profile != null && profile.getSubsampling() != null
+                ? profile.getSubsampling() : AppConfig.getBoolean(SUBSAMPLING_KEY, false);
+        boolean center = profile != null && profile.getCenter() != null
+                ? profile.getCenter() : AppConfig.getBoolean(CENTER_KEY, true);
+        String scaling = profile != null && profile.getScaling() != null
+                ? profile.getScaling() : AppConfig.getString(SCALING_KEY, Scaling.ACTUAL_SIZE.name());
+        String renderer = profile != null && profile.getRenderer() != null
+                ? profile.getRenderer() : AppConfig.getString(RENDERER_KEY, "pdf");
+
+        return new PdfPrintOptions(Math.max(0, dpi), subsampling, parseScaling(scaling), center,
+                RENDERER_JAVA2D.equalsIgnoreCase(renderer));
+    }
+
+    /**
+     * A PDFPrintable for the document configured with these options.
+     */
+    public PDFPrintable createPrintable(PDDocument document) {
+        PDFRenderer renderer = new PDFRenderer(document);
+        renderer.setSubsamplingAllowed(subsampling);
+        return new PDFPrintable(document, scaling, false, dpi, center, renderer);
+    }
+
+    public float getDpi() {
+        return dpi;
+    }
+
+    public boolean isSubsampling() {
+        return subsampling;
+    }
+
+    public Scaling getScaling() {
+        return scaling;
+    }
+
+    public boolean isCenter() {
+        return center;
+    }
+
+    /**
+     * True when cheques should be drawn with ChequePrintable, keeping the text as glyphs.
+     */
+    public boolean isJava2dRenderer() {
+        return java2dRenderer;
+    }
+
+    private static Scaling parseScaling(String value) {
+        try {
+            return Scaling.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown print scaling '{}', using {}", value, Scaling.ACTUAL_SIZE);
+            return Scaling.ACTUAL_SIZE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (java2dRenderer ? "java2d" : "pdf") + ", dpi " + (dpi > 0 ? dpi : "vector")
+                + ", " + scaling + (center ? ", centered" : "") + (subsampling ? ", subsampling" : "");
+    }
+}
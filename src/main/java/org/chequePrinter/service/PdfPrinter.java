@@ -2,7 +2,8 @@ package org.chequePrinter.service;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.printing.PDFPrintable;
-import org.apache.pdfbox.printing.Scaling;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
 
 import java.awt.print.*;
 import java.io.File;
@@ -10,12 +11,62 @@ import java.io.IOException;
 
 public class PdfPrinter {
 
+    private static final Logger logger = LoggerUtil.getLogger(PdfPrinter.class);
+
     public static boolean printPdf(PDDocument document, float widthCm, float heightCm) throws IOException, PrinterException {
         if (document == null) {
             System.err.println("Document is null. Cannot print.");
             return false;
         }
 
+        try {
+            return printCustomSizePdf(document, widthCm, heightCm);
+        } finally {
+            // Always release the document, also when the print dialog or spooler throws
+            document.close();
+        }
+    }
+
+    private static boolean printCustomSizePdf(PDDocument document, float widthCm, float heightCm) throws PrinterException {
+        PDFPrintable printable = PdfPrintOptions.defaults().createPrintable(document);
+        return printOnChequePaper(printable, document.getNumberOfPages(), widthCm, heightCm);
+    }
+
+    /**
+     * Prints cheques drawn directly with Java2D (see ChequePrintable) on the same
+     * cheque-sized paper as printPdf, skipping PDF parsing and rasterization.
+     */
+    public static boolean printChequePrintable(ChequePrintable printable, float widthCm, float heightCm) throws PrinterException {
+        if (printable == null) {
+            System.err.println("Printable is null. Cannot print.");
+            return false;
+        }
+        return printOnChequePaper(printable, printable.getNumberOfPages(), widthCm, heightCm);
+    }
+
+    private static boolean printOnChequePaper(Printable printable, int numberOfPages, float widthCm, float heightCm) throws PrinterException {
+        return printWithDialog(createChequeBook(printable, numberOfPages, widthCm, heightCm), "PDF");
+    }
+
+    /**
+     * Pages of a cheque PDF on cheque-sized paper, for use with PrintQueueService.
+     */
+    public static Book createChequeBook(PDDocument document, float widthCm, float heightCm) {
+        return createChequeBook(document, widthCm, heightCm, PdfPrintOptions.defaults());
+    }
+
+    /**
+     * Pages of a cheque PDF on cheque-sized paper, rendered with the given options.
+     */
+    public static Book createChequeBook(PDDocument document, float widthCm, float heightCm, PdfPrintOptions options) {
+        return createChequeBook(options.createPrintable(document), document.getNumberOfPages(), widthCm, heightCm);
+    }
+
+    /**
+     * Pages on cheque-sized paper: the paper is (height x width) in portrait and the
+     * cheque pages carry a -90 rotation, matching how the cheques are fed to the printer.
+     */
+    public static Book createChequeBook(Printable printable, int numberOfPages, float widthCm, float heightCm) {
         // Convert dimensions from cm to inches, then to points
         float widthInches = widthCm / 2.54f;
         float heightInches = heightCm / 2.54f;
@@ -38,34 +89,58 @@ public class PdfPrinter {
         pageFormat.setOrientation(PageFormat.PORTRAIT);
         System.out.println("Orientation: PORTRAIT (forced as requested)");
 
-        // Prepare the printer job
-        PrinterJob job = PrinterJob.getPrinterJob();
-        PDFPrintable printable = new PDFPrintable(document, Scaling.ACTUAL_SIZE);
-
         Book book = new Book();
-        book.append(printable, pageFormat, document.getNumberOfPages());
-        job.setPageable(book);
+        book.append(printable, pageFormat, numberOfPages);
+        return book;
+    }
 
-        // Open print dialog and print
-        boolean printSuccessful = false;
-        if (job.printDialog()) {
-            job.print();
-            System.out.println("PDF sent to printer successfully.");
-            printSuccessful = true;
-        } else {
-            System.out.println("Print job was cancelled by user.");
+    public static boolean printPaymentPlanPdf(PDDocument document) throws IOException, PrinterException {
+        if (document == null) {
+            System.err.println("Document is null. Cannot print.");
+            return false;
         }
 
-        document.close();
-        return printSuccessful;
+        try {
+            return printA4PortraitPdf(document, "Payment Plan");
+        } finally {
+            // Always release the document, also when the print dialog or spooler throws
+            document.close();
+        }
     }
 
-    public static boolean printPaymentPlanPdf(PDDocument document) throws IOException, PrinterException {
+    /**
+     * Prints an N-up document produced by PdfGenerator.generateImposedPdf on A4 portrait sheets.
+     */
+    public static boolean printImposedPdf(PDDocument document) throws IOException, PrinterException {
         if (document == null) {
             System.err.println("Document is null. Cannot print.");
             return false;
         }
 
+        try {
+            return printA4PortraitPdf(document, "Imposed cheque sheets");
+        } finally {
+            // Always release the document, also when the print dialog or spooler throws
+            document.close();
+        }
+    }
+
+    private static boolean printA4PortraitPdf(PDDocument document, String description) throws PrinterException {
+        logger.debug("Printing {} as A4 portrait", description);
+        return printWithDialog(createA4Book(document), description + " PDF");
+    }
+
+    /**
+     * Pages of an A4 portrait document (payment plans, imposed cheque sheets), for use with PrintQueueService.
+     */
+    public static Book createA4Book(PDDocument document) {
+        return createA4Book(document, PdfPrintOptions.defaults());
+    }
+
+    /**
+     * Pages of an A4 portrait document, rendered with the given options.
+     */
+    public static Book createA4Book(PDDocument document, PdfPrintOptions options) {
         // A4 Portrait dimensions: 21.0cm x 29.7cm
         float widthCm = 21.0f;
         float heightCm = 29.7f;
@@ -77,7 +152,6 @@ public class PdfPrinter {
         float widthPoints = widthInches * 72f;
         float heightPoints = heightInches * 72f;
 
-        System.out.println("=== PAYMENT PLAN PRINTER DEBUG ===");
         System.out.println("A4 Portrait dimensions: " + widthCm + " x " + heightCm + " cm");
         System.out.println("Converted to points: " + widthPoints + " x " + heightPoints);
 
@@ -92,25 +166,28 @@ public class PdfPrinter {
         pageFormat.setOrientation(PageFormat.PORTRAIT);
         System.out.println("Orientation: A4 PORTRAIT");
 
-        // Prepare the printer job
-        PrinterJob job = PrinterJob.getPrinterJob();
-        PDFPrintable printable = new PDFPrintable(document, Scaling.ACTUAL_SIZE);
+        PDFPrintable printable = options.createPrintable(document);
 
         Book book = new Book();
         book.append(printable, pageFormat, document.getNumberOfPages());
+        return book;
+    }
+
+    private static boolean printWithDialog(Book book, String description) throws PrinterException {
+        // Prepare the printer job
+        PrinterJob job = PrinterJob.getPrinterJob();
         job.setPageable(book);
 
         // Open print dialog and print
         boolean printSuccessful = false;
         if (job.printDialog()) {
             job.print();
-            System.out.println("Payment Plan PDF sent to printer successfully.");
+            System.out.println(description + " sent to printer successfully.");
             printSuccessful = true;
         } else {
-            System.out.println("Payment Plan print job was cancelled by user.");
+            System.out.println(description + " print job was cancelled by user.");
         }
 
-        document.close();
         return printSuccessful;
     }
 
@@ -5,6 +5,9 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.chequePrinter.model.ChequeData;
 import org.chequePrinter.model.PdfContent;
 import org.chequePrinter.model.BankTemplate;
+import org.chequePrinter.util.ChequeDates;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -12,29 +15,112 @@ import java.util.List;
 
 public class PdfService {
 
+    private static final Logger logger = LoggerUtil.getLogger(PdfService.class);
+
+    // Conversion: 1 inch = 72 points, 1 inch = 2.54 cm
+    private static final float POINTS_PER_CM = 72f / 2.54f;
+    private static final String FONT_PATH = "Amiri-Regular.ttf";
+
+    // Fallback cheque size when no template is selected
+    private static final float DEFAULT_WIDTH_CM = 16.7f;
+    private static final float DEFAULT_HEIGHT_CM = 8.1f;
+
+    /**
+     * Cheque page width in points for the template (the default size when there is none).
+     */
+    public static float getPageWidth(BankTemplate.Template template) {
+        return (template != null ? template.getWidth() : DEFAULT_WIDTH_CM) * POINTS_PER_CM;
+    }
+
+    /**
+     * Cheque page height in points for the template (the default size when there is none).
+     */
+    public static float getPageHeight(BankTemplate.Template template) {
+        return (template != null ? template.getHeight() : DEFAULT_HEIGHT_CM) * POINTS_PER_CM;
+    }
+
+    /**
+     * Render cheques one per page at the template size, using the template field positions.
+     * This is the layout used for printing from the UI and from the batch command line.
+     */
+    public static PDDocument createChequePdf(BankTemplate.Template template, List<ChequeData> chequeDataList) throws IOException {
+        List<List<PdfContent>> allPagesContent = new ArrayList<>();
+        for (ChequeData chequeData : chequeDataList) {
+            allPagesContent.add(createChequeContent(chequeData, template));
+        }
+
+        float widthInCm = template != null ? template.getWidth() : DEFAULT_WIDTH_CM;
+        float heightInCm = template != null ? template.getHeight() : DEFAULT_HEIGHT_CM;
+        float pageWidthInPoints = widthInCm * POINTS_PER_CM;
+        float pageHeightInPoints = heightInCm * POINTS_PER_CM;
+
+        logger.debug("Cheque PDF for template {}: {} x {} cm = {} x {} pt",
+                template != null ? template.getTemplateName() : "default", widthInCm, heightInCm,
+                pageWidthInPoints, pageHeightInPoints);
+
+        return PdfGenerator.generatePdf(pageWidthInPoints, pageHeightInPoints,
+                allPagesContent, createSharedContent(template), FONT_PATH);
+    }
+
+    /**
+     * Build a Java2D printable for the cheques from the same render plan as createChequePdf,
+     * for printing without going through a PDF document.
+     */
+    public static ChequePrintable createChequePrintable(BankTemplate.Template template, List<ChequeData> chequeDataList) throws IOException {
+        List<List<PdfContent>> allPagesContent = new ArrayList<>();
+        for (ChequeData chequeData : chequeDataList) {
+            allPagesContent.add(createChequeContent(chequeData, template));
+        }
+
+        float widthInCm = template != null ? template.getWidth() : DEFAULT_WIDTH_CM;
+        float heightInCm = template != null ? template.getHeight() : DEFAULT_HEIGHT_CM;
+
+        return new ChequePrintable(widthInCm * POINTS_PER_CM, heightInCm * POINTS_PER_CM,
+                allPagesContent, createSharedContent(template), FONT_PATH);
+    }
+
+    /**
+     * Render cheques N-up on A4 sheets, laid out from the template size.
+     */
+    public static PDDocument createImposedChequePdf(BankTemplate.Template template, List<ChequeData> chequeDataList,
+                                                    int maxPerSheet, boolean cutMarks) throws IOException {
+        List<List<PdfContent>> allChequesContent = new ArrayList<>();
+        for (ChequeData chequeData : chequeDataList) {
+            allChequesContent.add(createChequeContent(chequeData, template));
+        }
+
+        float widthInCm = template != null ? template.getWidth() : DEFAULT_WIDTH_CM;
+        float heightInCm = template != null ? template.getHeight() : DEFAULT_HEIGHT_CM;
+
+        return PdfGenerator.generateImposedPdf(widthInCm * POINTS_PER_CM, heightInCm * POINTS_PER_CM,
+                allChequesContent, createSharedContent(template), FONT_PATH, maxPerSheet, cutMarks);
+    }
+
     public static PDDocument createPdf(BankTemplate.Template bankTemplate, List<ChequeData> chequeDataList, String interval) throws IOException {
         BankTemplate.Template template = bankTemplate;
         List<List<PdfContent>> allPagesContent = new ArrayList<>();
 
+        // The fixed text is the same on every cheque, so it is rendered once and shared by all pages
+        List<PdfContent> sharedContent = new ArrayList<>();
+        BankTemplate.FixedTextField fixedText = template.getFixedTextField();
+        if (fixedText != null && fixedText.getText() != null && !fixedText.getText().trim().isEmpty()) {
+            sharedContent.add(new PdfContent(
+                fixedText.getText(),
+                fixedText.getFontSize(),
+                fixedText.getAlignment(),
+                fixedText.getX(),
+                fixedText.getY(),
+                fixedText.getWidth(),
+                0));
+        }
+
         for (ChequeData chequeData : chequeDataList) {
             List<PdfContent> pageContent = new ArrayList<>();
-            pageContent.add(new PdfContent(chequeData.getDate(), template.getFields().get("dateField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("dateField").getX(), template.getFields().get("dateField").getY(), template.getFields().get("dateField").getWidth(), 0));
+            pageContent.add(new PdfContent(chequeData.getDateText(ChequeDates.ISO_FORMAT), template.getFields().get("dateField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("dateField").getX(), template.getFields().get("dateField").getY(), template.getFields().get("dateField").getWidth(), 0));
             pageContent.add(new PdfContent(chequeData.getBeneficiaryName(), template.getFields().get("beneficiaryField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("beneficiaryField").getX(), template.getFields().get("beneficiaryField").getY(), template.getFields().get("beneficiaryField").getWidth(), 0));
             pageContent.add(new PdfContent(chequeData.getAmountWords(), template.getFields().get("amountWordsField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("amountWordsField").getX(), template.getFields().get("amountWordsField").getY(), template.getFields().get("amountWordsField").getWidth(), 0));
             pageContent.add(new PdfContent(chequeData.getAmountNumeric(), template.getFields().get("amountField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("amountField").getX(), template.getFields().get("amountField").getY(), template.getFields().get("amountField").getWidth(), 0));
             pageContent.add(new PdfContent(chequeData.getSignerName(), template.getFields().get("signerField").getFontSize(), Element.ALIGN_CENTER, template.getFields().get("signerField").getX(), template.getFields().get("signerField").getY(), template.getFields().get("signerField").getWidth(), 0));
-            // Add fixed text field if present
-            BankTemplate.FixedTextField fixedText = template.getFixedTextField();
-            if (fixedText != null && fixedText.getText() != null && !fixedText.getText().trim().isEmpty()) {
-                pageContent.add(new PdfContent(
-                    fixedText.getText(),
-                    fixedText.getFontSize(),
-                    fixedText.getAlignment(),
-                    fixedText.getX(),
-                    fixedText.getY(),
-                    fixedText.getWidth(),
-                    0));
-            }
             allPagesContent.add(pageContent);
         }
 
@@ -53,6 +139,94 @@ public class PdfService {
         System.out.println("Converted to points: " + pageWidthInPoints + " x " + pageHeightInPoints);
         System.out.println("===================================");
         
-        return PdfGenerator.generatePdf(pageWidthInPoints, pageHeightInPoints, allPagesContent, "Amiri-Regular.ttf");
+        return PdfGenerator.generatePdf(pageWidthInPoints, pageHeightInPoints, allPagesContent, sharedContent, "Amiri-Regular.ttf");
+    }
+
+    /**
+     * Build the per-cheque content at the template field positions (or the default NBE layout when no template is given).
+     */
+    public static List<PdfContent> createChequeContent(ChequeData chequeData, BankTemplate.Template selectedTemplate) {
+        List<PdfContent> contentList = new ArrayList<>();
+
+        if (selectedTemplate == null) {
+            // Fallback to default NBE template positioning
+            logger.debug("Using default template positioning");
+            contentList.add(new PdfContent(chequeData.getDateText(ChequeDates.ISO_FORMAT), 14, Element.ALIGN_CENTER, 370, 200, 120f, 23f));
+            contentList.add(new PdfContent(chequeData.getBeneficiaryName(), 14, Element.ALIGN_CENTER, 180, 160, 150f, 30f));
+            contentList.add(new PdfContent(chequeData.getAmountWords(), 14, Element.ALIGN_CENTER, 140, 135, 300f, 30f));
+            contentList.add(new PdfContent(chequeData.getAmountNumeric(), 14, Element.ALIGN_CENTER, 395, 120, 88f, 23f));
+            contentList.add(new PdfContent(chequeData.getSignerName(), 14, Element.ALIGN_CENTER, 350, 90, 88f, 23f));
+        } else {
+            // Use template-specific field positions
+            logger.debug("Using template-specific positioning for: {}", selectedTemplate.getTemplateName());
+            
+            BankTemplate.Field datePos = selectedTemplate.getFields().get("dateField");
+            if (datePos != null) {
+                String formattedDate = chequeData.getDateText(selectedTemplate.getDateFormat());
+                contentList.add(new PdfContent(formattedDate, datePos.getFontSize(), datePos.getAlignment(),
+                    datePos.getX(), datePos.getY(), datePos.getWidth(), 23f));
+                logger.debug("Date field: '{}' at ({}, {})", formattedDate, datePos.getX(), datePos.getY());
+            }
+            
+            BankTemplate.Field beneficiaryPos = selectedTemplate.getFields().get("beneficiaryField");
+            if (beneficiaryPos != null) {
+                String beneficiaryText = chequeData.getBeneficiaryName();
+                contentList.add(new PdfContent(beneficiaryText, beneficiaryPos.getFontSize(), beneficiaryPos.getAlignment(),
+                    beneficiaryPos.getX(), beneficiaryPos.getY(), beneficiaryPos.getWidth(), 30f));
+                logger.debug("Beneficiary field: '{}' at ({}, {})", beneficiaryText, beneficiaryPos.getX(), beneficiaryPos.getY());
+            }
+            
+            BankTemplate.Field amountWordsPos = selectedTemplate.getFields().get("amountWordsField");
+            if (amountWordsPos != null) {
+                String amountWordsText = chequeData.getAmountWords();
+                contentList.add(new PdfContent(amountWordsText, amountWordsPos.getFontSize(), amountWordsPos.getAlignment(),
+                    amountWordsPos.getX(), amountWordsPos.getY(), amountWordsPos.getWidth(), 30f));
+                logger.debug("Amount words field: '{}' at ({}, {})", amountWordsText, amountWordsPos.getX(), amountWordsPos.getY());
+            }
+            
+            BankTemplate.Field amountNumericPos = selectedTemplate.getFields().get("amountField");
+            if (amountNumericPos != null) {
+                String amountNumericText = chequeData.getAmountNumeric();
+                contentList.add(new PdfContent(amountNumericText, amountNumericPos.getFontSize(), amountNumericPos.getAlignment(),
+                    amountNumericPos.getX(), amountNumericPos.getY(), amountNumericPos.getWidth(), 23f));
+                logger.debug("Amount numeric field: '{}' at ({}, {})", amountNumericText, amountNumericPos.getX(), amountNumericPos.getY());
+            }
+            
+            BankTemplate.Field signerPos = selectedTemplate.getFields().get("signerField");
+            if (signerPos != null) {
+                String signerText = chequeData.getSignerName();
+                contentList.add(new PdfContent(signerText, signerPos.getFontSize(), signerPos.getAlignment(),
+                    signerPos.getX(), signerPos.getY(), signerPos.getWidth(), 23f));
+                logger.debug("Signer field: '{}' at ({}, {})", signerText, signerPos.getX(), signerPos.getY());
+            }
+        }
+
+        logger.debug("Created {} PDF content items for printing", contentList.size());
+        return contentList;
+    }
+
+    /**
+     * Content that is identical on every cheque of the template (the fixed text field).
+     * It is rendered once per document and referenced from each page.
+     */
+    public static List<PdfContent> createSharedContent(BankTemplate.Template selectedTemplate) {
+        List<PdfContent> sharedContent = new ArrayList<>();
+
+        // Add fixed text field if present (for printing/PDF only)
+        if (selectedTemplate != null && selectedTemplate.getFixedTextField() != null) {
+            BankTemplate.FixedTextField fixedText = selectedTemplate.getFixedTextField();
+            if (fixedText.getText() != null && !fixedText.getText().trim().isEmpty()) {
+                sharedContent.add(new PdfContent(
+                    fixedText.getText(),
+                    fixedText.getFontSize(),
+                    fixedText.getAlignment(),
+                    fixedText.getX(),
+                    fixedText.getY(),
+                    fixedText.getWidth(),
+                    0));
+                logger.debug("Fixed text field: '{}' at ({}, {})", fixedText.getText(), fixedText.getX(), fixedText.getY());
+            }
+        }
+        return sharedContent;
     }
 }
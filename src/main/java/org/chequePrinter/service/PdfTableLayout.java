@@ -0,0 +1,191 @@
+package org.chequePrinter.service;
+
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Lays out table rows from measured text widths: each cell is wrapped at word boundaries
+ * to its column width, and a row is as tall as its tallest cell.
+ *
+ * Widths come from PDFont.getStringWidth, cached per glyph (shaped character) and per
+ * word, so the repeated words of amounts in words are measured only once. Arabic text is
+ * shaped per word for measuring; joining never crosses a space, so the width of a line is
+ * the sum of its word widths plus the spaces between them.
+ */
+class PdfTableLayout {
+
+    private final PDFont font;
+    private final float fontSize;
+    private final float lineSpacing;
+    private final float rowPadding;
+    private final float columnGap;
+    private final float[] columnX;
+    private final float[] columnWidths;
+    private final UnaryOperator<String> shaper;
+
+    private final Map<Integer, Float> glyphWidths = new HashMap<>();
+    private final Map<String, Float> wordWidths = new HashMap<>();
+    private final float spaceWidth;
+
+    /**
+     * @param rowPadding   vertical space added to each row, split above and below the text
+     * @param x            left edge of the table
+     * @param columnWidths width of each column; text wraps columnGap before the next column
+     * @param shaper       turns logical text into the shaped, visually ordered text that is drawn
+     */
+    PdfTableLayout(PDFont font, float fontSize, float lineSpacing, float rowPadding, float columnGap, float x,
+                   float[] columnWidths, UnaryOperator<String> shaper) throws IOException {
+        this.font = font;
+        this.fontSize = fontSize;
+        this.lineSpacing = lineSpacing;
+        this.rowPadding = rowPadding;
+        this.columnGap = columnGap;
+        this.columnWidths = columnWidths.clone();
+        this.columnX = new float[columnWidths.length];
+        this.shaper = shaper;
+
+        float position = x;
+        for (int i = 0; i < columnWidths.length; i++) {
+            columnX[i] = position;
+            position += columnWidths[i];
+        }
+        this.spaceWidth = glyphWidth(' ');
+    }
+
+    /**
+     * Width of a logical text in points, as it will be drawn.
+     */
+    float measure(String text) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        float width = 0;
+        int words = 0;
+        for (String word : text.split(" ")) {
+            if (!word.isEmpty()) {
+                width += wordWidth(word);
+                words++;
+            }
+        }
+        return width + Math.max(0, words - 1) * spaceWidth;
+    }
+
+    float getColumnX(int column) {
+        return columnX[column];
+    }
+
+    /**
+     * Measure and wrap the cells of one row.
+     */
+    Row layoutRow(String... cells) throws IOException {
+        List<List<String>> lines = new ArrayList<>(cells.length);
+        int maxLines = 1;
+        for (int i = 0; i < cells.length; i++) {
+            List<String> cellLines = wrap(cells[i], columnWidths[i] - columnGap);
+            lines.add(cellLines);
+            maxLines = Math.max(maxLines, cellLines.size());
+        }
+        return new Row(lines, maxLines * lineSpacing + rowPadding);
+    }
+
+    /**
+     * Draw a row with its top edge at the given y position.
+     */
+    void drawRow(PDPageContentStream contentStream, Row row, float top) throws IOException {
+        float firstBaseline = top - rowPadding / 2 - fontSize;
+        for (int column = 0; column < row.cellLines.size(); column++) {
+            List<String> lines = row.cellLines.get(column);
+            for (int line = 0; line < lines.size(); line++) {
+                contentStream.beginText();
+                contentStream.setFont(font, fontSize);
+                contentStream.newLineAtOffset(columnX[column], firstBaseline - line * lineSpacing);
+                contentStream.showText(shaper.apply(lines.get(line)));
+                contentStream.endText();
+            }
+        }
+    }
+
+    /**
+     * Split text into lines that fit the width, breaking between words. A single word that
+     * is wider than the column is kept on its own line rather than cut.
+     */
+    private List<String> wrap(String text, float width) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        float lineWidth = 0;
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            float measured = wordWidth(word);
+            if (line.length() > 0 && lineWidth + spaceWidth + measured > width) {
+                lines.add(line.toString());
+                line.setLength(0);
+                lineWidth = 0;
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+                lineWidth += spaceWidth;
+            }
+            line.append(word);
+            lineWidth += measured;
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private float wordWidth(String word) throws IOException {
+        Float cached = wordWidths.get(word);
+        if (cached != null) {
+            return cached;
+        }
+        String shaped = shaper.apply(word);
+        float width = 0;
+        for (int i = 0; i < shaped.length(); ) {
+            int codePoint = shaped.codePointAt(i);
+            width += glyphWidth(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        wordWidths.put(word, width);
+        return width;
+    }
+
+    private float glyphWidth(int codePoint) throws IOException {
+        Float cached = glyphWidths.get(codePoint);
+        if (cached == null) {
+            cached = font.getStringWidth(new String(Character.toChars(codePoint))) / 1000 * fontSize;
+            glyphWidths.put(codePoint, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * The wrapped lines of each cell of a row, and the row height.
+     */
+    static class Row {
+        private final List<List<String>> cellLines;
+        private final float height;
+
+        private Row(List<List<String>> cellLines, float height) {
+            this.cellLines = cellLines;
+            this.height = height;
+        }
+
+        float getHeight() {
+            return height;
+        }
+    }
+}
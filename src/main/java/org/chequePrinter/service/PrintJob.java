@@ -0,0 +1,147 @@
+package org.chequePrinter.service;
+
+import javax.print.PrintService;
+import javax.print.attribute.PrintRequestAttributeSet;
+import java.awt.print.PrinterJob;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A print request tracked by PrintQueueService, from queueing to completion.
+ */
+public class PrintJob {
+
+    public enum Status {
+        QUEUED, RENDERING, SPOOLING, DONE, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == DONE || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+    private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final int id;
+    private final String description;
+    private final String profileKey;
+    private final LocalDateTime submittedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile String message = "";
+    private volatile int attempts;
+    private volatile boolean cancelRequested;
+    private volatile PrinterJob printerJob;
+    private volatile int totalPages;
+    private volatile int confirmedPages;
+
+    // Kept so a failed job can be resumed: the pages are rendered again and spooling
+    // continues on the same printer after the last confirmed page
+    private final PrintQueueService.PrintRenderer renderer;
+    private final Consumer<PrintJob> onFinished;
+    private volatile PrintService printService;
+    private volatile PrintRequestAttributeSet attributes;
+
+    PrintJob(String description, String profileKey, PrintQueueService.PrintRenderer renderer, Consumer<PrintJob> onFinished) {
+        this.id = nextId.getAndIncrement();
+        this.description = description;
+        this.profileKey = profileKey;
+        this.renderer = renderer;
+        this.onFinished = onFinished;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    public int getId() { return id; }
+    public String getDescription() { return description; }
+    public String getProfileKey() { return profileKey; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public int getAttempts() { return attempts; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public int getTotalPages() { return totalPages; }
+
+    /**
+     * Number of pages (from the start) that were accepted by the printer.
+     */
+    public int getConfirmedPages() { return confirmedPages; }
+
+    /**
+     * Confirmed and total pages, e.g. "100/500", or empty before rendering.
+     */
+    public String getProgress() {
+        return totalPages > 0 ? confirmedPages + "/" + totalPages : "";
+    }
+
+    /**
+     * Only failed jobs can be resumed; cancelled jobs were stopped on purpose.
+     */
+    public boolean canResume() {
+        return status == Status.FAILED;
+    }
+
+    public String getFormattedSubmittedAt() {
+        return submittedAt.format(timeFormatter);
+    }
+
+    public boolean isSuccessful() {
+        return status == Status.DONE;
+    }
+
+    void setStatus(Status status, String message) {
+        this.status = status;
+        this.message = message != null ? message : "";
+    }
+
+    void incrementAttempts() {
+        attempts++;
+    }
+
+    void setPrinterJob(PrinterJob printerJob) {
+        this.printerJob = printerJob;
+    }
+
+    PrintQueueService.PrintRenderer getRenderer() { return renderer; }
+    Consumer<PrintJob> getOnFinished() { return onFinished; }
+    PrintService getPrintService() { return printService; }
+    PrintRequestAttributeSet getAttributes() { return attributes; }
+
+    void setPrinter(PrintService printService, PrintRequestAttributeSet attributes) {
+        this.printService = printService;
+        this.attributes = attributes;
+    }
+
+    void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    void confirmPages(int confirmedPages) {
+        this.confirmedPages = confirmedPages;
+    }
+
+    /**
+     * Put a failed job back in the queue, keeping the confirmed pages and the printer.
+     */
+    void prepareResume() {
+        cancelRequested = false;
+        attempts = 0;
+        setStatus(Status.QUEUED, confirmedPages > 0 ? "Resuming after page " + confirmedPages : "Resuming");
+    }
+
+    /**
+     * Ask the job to stop. A queued or rendering job stops before spooling; a spooling
+     * job is cancelled through the printer job.
+     */
+    void requestCancel() {
+        cancelRequested = true;
+        PrinterJob job = printerJob;
+        if (job != null && status == Status.SPOOLING) {
+            job.cancel();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "#" + id + " " + description + " [" + status + "]";
+    }
+}
@@ -0,0 +1,437 @@
+package org.chequePrinter.service;
+
+import org.chequePrinter.model.PrinterProfile;
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import javax.print.PrintService;
+import javax.print.attribute.HashPrintRequestAttributeSet;
+import javax.print.attribute.PrintRequestAttributeSet;
+import javax.print.attribute.standard.DialogTypeSelection;
+import java.awt.print.PageFormat;
+import java.awt.print.Pageable;
+import java.awt.print.Printable;
+import java.awt.print.PrinterAbortException;
+import java.awt.print.PrinterException;
+import java.awt.print.PrinterJob;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs print jobs one at a time on a background worker so the UI stays responsive
+ * while documents are rendered and spooled.
+ *
+ * Each job goes QUEUED -> RENDERING -> SPOOLING -> DONE, or ends as FAILED or CANCELLED.
+ * Spooler errors that happen before any page was handed to the printer are retried up to
+ * print.queue.maxRetries times, waiting print.queue.retryDelayMs (times the attempt number)
+ * between attempts. Once a page has gone out the job fails instead, as printing the chunk
+ * again could print cheques twice.
+ * Large prints are spooled in chunks of print.chunk.pages pages, each as its own printer
+ * job, so the spooler starts printing early.
+ * A failed job can be resumed: it continues after the last page the printer accepted.
+ * With print.target=file all jobs go to the VirtualPrinter instead of a real printer.
+ * Listeners and completion callbacks are called on the worker thread.
+ */
+public class PrintQueueService {
+
+    private static final Logger logger = LoggerUtil.getLogger(PrintQueueService.class);
+
+    static final String MAX_RETRIES_KEY = "print.queue.maxRetries";
+    static final String RETRY_DELAY_MS_KEY = "print.queue.retryDelayMs";
+    static final String ALWAYS_ASK_KEY = "print.profile.alwaysAsk";
+    static final String CHUNK_PAGES_KEY = "print.chunk.pages";
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "print-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final List<PrintJob> jobs = new CopyOnWriteArrayList<>();
+    private static final List<Consumer<PrintJob>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Produces what should be printed. Called on the worker thread.
+     */
+    @FunctionalInterface
+    public interface PrintRenderer {
+        RenderedPrint render() throws Exception;
+    }
+
+    /**
+     * The pages to spool, plus the resource (usually the PDDocument) to close once the job ends.
+     */
+    public static class RenderedPrint {
+        private final Pageable pageable;
+        private final Closeable resource;
+
+        public RenderedPrint(Pageable pageable, Closeable resource) {
+            this.pageable = pageable;
+            this.resource = resource;
+        }
+
+        public Pageable getPageable() { return pageable; }
+        public Closeable getResource() { return resource; }
+    }
+
+    /**
+     * Queue a print job.
+     *
+     * @param description shown in the print queue window and the logs
+     * @param renderer    builds the pages on the worker thread
+     * @param onFinished  called once the job is DONE, FAILED or CANCELLED (may be null)
+     */
+    public static PrintJob submit(String description, PrintRenderer renderer, Consumer<PrintJob> onFinished) {
+        return submit(description, null, renderer, onFinished);
+    }
+
+    /**
+     * Queue a print job that uses the printer profile stored under profileKey. The print
+     * dialog is shown only when there is no usable profile yet (or print.profile.alwaysAsk
+     * is set); the printer chosen there is stored for the next jobs with the same key.
+     */
+    public static PrintJob submit(String description, String profileKey, PrintRenderer renderer, Consumer<PrintJob> onFinished) {
+        PrintJob job = new PrintJob(description, profileKey, renderer, onFinished);
+        jobs.add(job);
+        logger.info("Print job queued: {}", job);
+        enqueue(job);
+        return job;
+    }
+
+    /**
+     * Queue a failed job again. Its pages are rendered again and spooling continues on the
+     * same printer after the last confirmed page; the completion callback is called again.
+     *
+     * @return false when the job is not in a resumable state
+     */
+    public static boolean resume(PrintJob job) {
+        if (job == null || !job.canResume()) {
+            return false;
+        }
+        job.prepareResume();
+        logger.info("Print job resumed: {} after page {}", job, job.getConfirmedPages());
+        enqueue(job);
+        return true;
+    }
+
+    /**
+     * Hand the job to the worker; its completion callback runs once the job has ended.
+     */
+    private static void enqueue(PrintJob job) {
+        notifyListeners(job);
+        worker.submit(() -> {
+            try {
+                runJob(job);
+            } catch (Exception e) {
+                // runJob handles its own failures; this only guards the worker against bugs
+                LoggerUtil.logException(logger, "print_queue_worker", e);
+                job.setStatus(PrintJob.Status.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                notifyListeners(job);
+            }
+            if (job.getOnFinished() != null) {
+                job.getOnFinished().accept(job);
+            }
+        });
+    }
+
+    /**
+     * Cancel a queued, rendering or spooling job.
+     */
+    public static void cancel(PrintJob job) {
+        if (job == null || job.getStatus().isFinished()) {
+            return;
+        }
+        logger.info("Cancellation requested for print job {}", job);
+        job.requestCancel();
+    }
+
+    public static List<PrintJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Forget jobs that are DONE, FAILED or CANCELLED.
+     */
+    public static void clearFinished() {
+        jobs.removeIf(job -> job.getStatus().isFinished());
+    }
+
+    public static void addListener(Consumer<PrintJob> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Consumer<PrintJob> listener) {
+        listeners.remove(listener);
+    }
+
+    private static void runJob(PrintJob job) {
+        if (job.isCancelRequested()) {
+            finish(job, PrintJob.Status.CANCELLED, "Cancelled before rendering");
+            return;
+        }
+
+        update(job, PrintJob.Status.RENDERING, "");
+        long renderStart = System.currentTimeMillis();
+        RenderedPrint rendered;
+        try {
+            rendered = job.getRenderer().render();
+            logger.info("Print job {} rendered in {} ms", job, System.currentTimeMillis() - renderStart);
+        } catch (Exception e) {
+            LoggerUtil.logException(logger, "print_job_render", e);
+            finish(job, PrintJob.Status.FAILED, "Rendering failed: " + e.getMessage());
+            return;
+        }
+
+        try {
+            if (job.isCancelRequested()) {
+                finish(job, PrintJob.Status.CANCELLED, "Cancelled before printing");
+                return;
+            }
+
+            Pageable pageable = rendered.getPageable();
+            job.setTotalPages(pageable.getNumberOfPages());
+
+            // A resumed job goes back to the printer it was already printing on
+            if (job.getPrintService() == null && !VirtualPrinter.isEnabled()) {
+                PrinterJob printerJob = PrinterJob.getPrinterJob();
+                printerJob.setJobName(jobName(job));
+                printerJob.setPageable(pageable);
+                job.setPrinterJob(printerJob);
+
+                PrintRequestAttributeSet attributes;
+                try {
+                    attributes = selectPrinter(job, printerJob);
+                } catch (PrinterException e) {
+                    LoggerUtil.logException(logger, "print_job_select_printer", e);
+                    finish(job, PrintJob.Status.FAILED, "Printer not usable: " + e.getMessage());
+                    return;
+                }
+                if (attributes == null) {
+                    finish(job, PrintJob.Status.CANCELLED, "Print dialog cancelled");
+                    return;
+                }
+                job.setPrinter(printerJob.getPrintService(), attributes);
+            }
+
+            spool(job, pageable);
+        } finally {
+            job.setPrinterJob(null);
+            closeQuietly(rendered.getResource());
+        }
+    }
+
+    /**
+     * Point the printer job at the profile's printer, or ask the user with the print dialog
+     * when there is no usable profile. Returns null when the dialog was cancelled.
+     */
+    private static PrintRequestAttributeSet selectPrinter(PrintJob job, PrinterJob printerJob) throws PrinterException {
+        String profileKey = job.getProfileKey();
+        PrinterProfile profile = PrinterProfileService.getProfile(profileKey);
+        PrintService service = profile != null ? PrinterProfileService.findPrintService(profile.getPrinterName()) : null;
+        PrintRequestAttributeSet attributes = PrinterProfileService.createAttributes(profile, service);
+
+        if (service != null && !AppConfig.getBoolean(ALWAYS_ASK_KEY, false)) {
+            printerJob.setPrintService(service);
+            logger.info("Printing {} on {} (stored profile)", job, service.getName());
+            return attributes;
+        }
+
+        if (service != null) {
+            printerJob.setPrintService(service);
+        } else if (profile != null) {
+            logger.warn("Printer '{}' from profile {} is not available, asking again", profile.getPrinterName(), profileKey);
+        }
+        // The operator's native print dialog, as before; the choices still land in attributes
+        attributes.add(DialogTypeSelection.NATIVE);
+        boolean accepted = printerJob.printDialog(attributes);
+        attributes.remove(DialogTypeSelection.class);
+        if (!accepted) {
+            return null;
+        }
+        PrinterProfileService.saveProfile(profileKey, printerJob.getPrintService(), attributes);
+        return attributes;
+    }
+
+    /**
+     * Spool the pages after the last confirmed one, one chunk per printer job.
+     */
+    private static void spool(PrintJob job, Pageable pageable) {
+        int totalPages = pageable.getNumberOfPages();
+        if (totalPages == Pageable.UNKNOWN_NUMBER_OF_PAGES) {
+            // Cannot be split; spool in one job
+            if (spoolChunk(job, pageable, jobName(job))) {
+                finish(job, PrintJob.Status.DONE, "");
+            }
+            return;
+        }
+
+        int chunkPages = AppConfig.getInt(CHUNK_PAGES_KEY, 100);
+        while (job.getConfirmedPages() < totalPages) {
+            if (job.isCancelRequested()) {
+                finish(job, PrintJob.Status.CANCELLED, "Cancelled after page " + job.getConfirmedPages());
+                return;
+            }
+            int from = job.getConfirmedPages();
+            int to = chunkPages > 0 ? Math.min(totalPages, from + chunkPages) : totalPages;
+
+            boolean whole = from == 0 && to == totalPages;
+            Pageable chunk = whole ? pageable : new PageRangePageable(pageable, from, to);
+            String name = whole ? jobName(job)
+                    : jobName(job) + " (pages " + (from + 1) + "-" + to + " of " + totalPages + ")";
+            if (!spoolChunk(job, chunk, name)) {
+                return;
+            }
+            job.confirmPages(to);
+            logger.info("Print job {}: pages {}/{} spooled", job, to, totalPages);
+        }
+        finish(job, PrintJob.Status.DONE, "");
+    }
+
+    /**
+     * Spool one chunk in its own printer job, retrying spooler errors that came before any
+     * page was printed. Returns true once the printer accepted it; otherwise the job has
+     * been finished as FAILED or CANCELLED.
+     */
+    private static boolean spoolChunk(PrintJob job, Pageable chunk, String name) {
+        int maxRetries = Math.max(0, AppConfig.getInt(MAX_RETRIES_KEY, 2));
+        long retryDelayMs = Math.max(0, AppConfig.getLong(RETRY_DELAY_MS_KEY, 2000));
+
+        for (int attempt = 1; ; attempt++) {
+            job.incrementAttempts();
+            update(job, PrintJob.Status.SPOOLING, progressMessage(job, attempt));
+            VirtualPrinter.Session virtualPrinter = null;
+            TrackedPageable tracked = new TrackedPageable(chunk);
+            try {
+                PrinterJob printerJob = PrinterJob.getPrinterJob();
+                if (VirtualPrinter.isEnabled()) {
+                    virtualPrinter = VirtualPrinter.open(name);
+                    printerJob.setPrintService(virtualPrinter.getPrintService());
+                } else if (job.getPrintService() != null) {
+                    printerJob.setPrintService(job.getPrintService());
+                }
+                printerJob.setJobName(name);
+                printerJob.setPageable(tracked);
+                job.setPrinterJob(printerJob);
+                printerJob.print(job.getAttributes() != null ? job.getAttributes() : new HashPrintRequestAttributeSet());
+                if (virtualPrinter != null) {
+                    virtualPrinter.complete(chunk.getNumberOfPages());
+                }
+                return true;
+            } catch (PrinterAbortException e) {
+                finish(job, PrintJob.Status.CANCELLED, "Cancelled while printing");
+                return false;
+            } catch (PrinterException e) {
+                if (job.isCancelRequested()) {
+                    finish(job, PrintJob.Status.CANCELLED, "Cancelled while printing");
+                    return false;
+                }
+                if (tracked.isStarted() || attempt > maxRetries) {
+                    LoggerUtil.logException(logger, "print_job_spool", e);
+                    String confirmed = job.getConfirmedPages() > 0 ? " after page " + job.getConfirmedPages() : "";
+                    // Pages of this chunk may have printed; the operator checks them before resuming
+                    String partly = tracked.isStarted() ? " (later pages may have printed)" : "";
+                    finish(job, PrintJob.Status.FAILED, "Printing failed" + confirmed + partly + ": " + e.getMessage());
+                    return false;
+                }
+                logger.warn("Spooling print job {} failed (attempt {}), retrying: {}", job, attempt, e.getMessage());
+                update(job, PrintJob.Status.SPOOLING, "Retrying after error: " + e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    finish(job, PrintJob.Status.FAILED, "Interrupted while waiting to retry");
+                    return false;
+                }
+            } finally {
+                if (virtualPrinter != null) {
+                    virtualPrinter.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notes whether the printer job has asked for any page yet.
+     */
+    private static class TrackedPageable implements Pageable {
+        private final Pageable pages;
+        private volatile boolean started;
+
+        TrackedPageable(Pageable pages) {
+            this.pages = pages;
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        @Override
+        public int getNumberOfPages() {
+            return pages.getNumberOfPages();
+        }
+
+        @Override
+        public PageFormat getPageFormat(int pageIndex) {
+            return pages.getPageFormat(pageIndex);
+        }
+
+        @Override
+        public Printable getPrintable(int pageIndex) {
+            Printable printable = pages.getPrintable(pageIndex);
+            return (graphics, pageFormat, index) -> {
+                started = true;
+                return printable.print(graphics, pageFormat, index);
+            };
+        }
+    }
+
+    private static String jobName(PrintJob job) {
+        return "Cheque Printer - " + job.getDescription();
+    }
+
+    private static String progressMessage(PrintJob job, int attempt) {
+        String progress = job.getTotalPages() > 0 ? "Pages " + job.getProgress() : "";
+        if (attempt > 1) {
+            return progress.isEmpty() ? "Attempt " + attempt : progress + ", attempt " + attempt;
+        }
+        return progress;
+    }
+
+    private static void update(PrintJob job, PrintJob.Status status, String message) {
+        job.setStatus(status, message);
+        notifyListeners(job);
+    }
+
+    private static void finish(PrintJob job, PrintJob.Status status, String message) {
+        update(job, status, message);
+        logger.info("Print job finished: {} {}", job, message);
+    }
+
+    private static void notifyListeners(PrintJob job) {
+        for (Consumer<PrintJob> listener : listeners) {
+            try {
+                listener.accept(job);
+            } catch (Exception e) {
+                LoggerUtil.logException(logger, "print_queue_listener", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (IOException e) {
+            logger.warn("Failed to release print job resources: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.chequePrinter.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.chequePrinter.model.PrinterProfile;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import javax.print.PrintService;
+import javax.print.PrintServiceLookup;
+import javax.print.attribute.Attribute;
+import javax.print.attribute.HashPrintRequestAttributeSet;
+import javax.print.attribute.PrintRequestAttributeSet;
+import javax.print.attribute.standard.Media;
+import javax.print.attribute.standard.OrientationRequested;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which printer (and media/orientation) was chosen for each kind of print.
+ *
+ * Profiles are kept in memory and persisted to printer-profiles.json in the user data
+ * directory. Print services are looked up once and cached by name, so routine prints
+ * neither open the print dialog nor enumerate all printers again.
+ */
+public class PrinterProfileService {
+
+    private static final Logger logger = LoggerUtil.getLogger(PrinterProfileService.class);
+
+    private static final File PROFILES_FILE = new File(
+            System.getProperty("user.home") + File.separator + "ChequePrinterData", "printer-profiles.json");
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final Map<String, PrinterProfile> profiles = new ConcurrentHashMap<>(loadProfiles());
+    private static volatile Map<String, PrintService> printServicesByName;
+
+    /**
+     * Profile key for cheques printed one per page with the given template.
+     */
+    public static String chequeKey(String templateName) {
+        return "cheque:" + templateName;
+    }
+
+    /**
+     * Profile key for A4 prints (payment plans, imposed cheque sheets).
+     */
+    public static String a4Key(String name) {
+        return "a4:" + name;
+    }
+
+    public static PrinterProfile getProfile(String key) {
+        return key != null ? profiles.get(key) : null;
+    }
+
+    /**
+     * Remember the printer and the media/orientation chosen in the print dialog.
+     */
+    public static void saveProfile(String key, PrintService service, PrintRequestAttributeSet attributes) {
+        if (key == null || service == null) {
+            return;
+        }
+        Attribute media = attributes != null ? attributes.get(Media.class) : null;
+        Attribute orientation = attributes != null ? attributes.get(OrientationRequested.class) : null;
+        PrinterProfile profile = new PrinterProfile(key, service.getName(),
+                media != null ? media.toString() : null,
+                orientation != null ? orientation.toString() : null);
+        profile.copyRenderingOptions(profiles.get(key));
+
+        profiles.put(key, profile);
+        cachePrintService(service);
+        logger.info("Saved printer profile {}", profile);
+        persistProfiles();
+    }
+
+    /**
+     * Forget all profiles, so the next print of each kind shows the print dialog again.
+     */
+    public static void clearProfiles() {
+        profiles.clear();
+        printServicesByName = null;
+        logger.info("Cleared all printer profiles");
+        persistProfiles();
+    }
+
+    /**
+     * The print service with the given name, from the cached lookup. The printers are
+     * enumerated again only when the name is not found (e.g. a printer was added).
+     */
+    public static PrintService findPrintService(String printerName) {
+        if (printerName == null) {
+            return null;
+        }
+        Map<String, PrintService> services = printServicesByName;
+        if (services == null || !services.containsKey(printerName)) {
+            services = lookupPrintServices();
+        }
+        return services.get(printerName);
+    }
+
+    /**
+     * Print request attributes for a profile, resolved against the printer's supported values.
+     */
+    public static PrintRequestAttributeSet createAttributes(PrinterProfile profile, PrintService service) {
+        PrintRequestAttributeSet attributes = new HashPrintRequestAttributeSet();
+        if (profile == null || service == null) {
+            return attributes;
+        }
+
+        if (profile.getMedia() != null) {
+            Object supported = service.getSupportedAttributeValues(Media.class, null, null);
+            if (supported instanceof Media[]) {
+                for (Media media : (Media[]) supported) {
+                    if (profile.getMedia().equals(media.toString())) {
+                        attributes.add(media);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (profile.getOrientation() != null) {
+            for (OrientationRequested orientation : new OrientationRequested[]{OrientationRequested.PORTRAIT,
+                    OrientationRequested.LANDSCAPE, OrientationRequested.REVERSE_PORTRAIT, OrientationRequested.REVERSE_LANDSCAPE}) {
+                if (profile.getOrientation().equals(orientation.toString())) {
+                    attributes.add(orientation);
+                    break;
+                }
+            }
+        }
+        return attributes;
+    }
+
+    private static synchronized Map<String, PrintService> lookupPrintServices() {
+        long start = System.currentTimeMillis();
+        Map<String, PrintService> services = new HashMap<>();
+        for (PrintService service : PrintServiceLookup.lookupPrintServices(null, null)) {
+            services.put(service.getName(), service);
+        }
+        printServicesByName = services;
+        logger.info("Found {} print service(s) in {} ms", services.size(), System.currentTimeMillis() - start);
+        return services;
+    }
+
+    private static synchronized void cachePrintService(PrintService service) {
+        Map<String, PrintService> services = printServicesByName != null
+                ? new HashMap<>(printServicesByName) : new HashMap<>();
+        services.put(service.getName(), service);
+        printServicesByName = services;
+    }
+
+    private static Map<String, PrinterProfile> loadProfiles() {
+        if (!PROFILES_FILE.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (Reader reader = Files.newBufferedReader(PROFILES_FILE.toPath(), StandardCharsets.UTF_8)) {
+            Type listType = new TypeToken<List<PrinterProfile>>(){}.getType();
+            List<PrinterProfile> stored = gson.fromJson(reader, listType);
+            Map<String, PrinterProfile> loaded = new HashMap<>();
+            if (stored != null) {
+                for (PrinterProfile profile : stored) {
+                    if (profile != null && profile.getKey() != null && profile.getPrinterName() != null) {
+                        loaded.put(profile.getKey(), profile);
+                    }
+                }
+            }
+            logger.info("Loaded {} printer profile(s) from {}", loaded.size(), PROFILES_FILE.getAbsolutePath());
+            return loaded;
+        } catch (Exception e) {
+            logger.warn("Failed to read printer profiles, starting without: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static synchronized void persistProfiles() {
+        try {
+            File directory = PROFILES_FILE.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory.getAbsolutePath());
+            }
+            // Write to a temporary file first so a crash never leaves a truncated profiles file
+            File tempFile = new File(directory, PROFILES_FILE.getName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(profiles.values(), writer);
+            }
+            Files.move(tempFile.toPath(), PROFILES_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Failed to save printer profiles: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.chequePrinter.service;
+
+import org.chequePrinter.util.AppConfig;
+import org.chequePrinter.util.LoggerUtil;
+import org.slf4j.Logger;
+
+import javax.print.DocFlavor;
+import javax.print.PrintService;
+import javax.print.StreamPrintService;
+import javax.print.StreamPrintServiceFactory;
+import java.awt.print.PrinterException;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A print target that spools to PostScript files instead of a physical printer, for dry
+ * runs and for measuring print throughput on machines without a printer (e.g. CI on Linux).
+ *
+ * Enabled with print.target=file. Every printer job is written to its own file in
+ * print.virtual.dir (or only counted when print.virtual.discard is set), and its pages,
+ * bytes and spool time are recorded and appended to virtual-printer.csv in that directory.
+ */
+public class VirtualPrinter {
+
+    private static final Logger logger = LoggerUtil.getLogger(VirtualPrinter.class);
+
+    static final String TARGET_KEY = "print.target";
+    static final String DIRECTORY_KEY = "print.virtual.dir";
+    static final String DISCARD_KEY = "print.virtual.discard";
+
+    private static final String TARGET_FILE = "file";
+    private static final String OUTPUT_MIME_TYPE = "application/postscript";
+    private static final String LOG_FILE_NAME = "virtual-printer.csv";
+    private static final DateTimeFormatter fileTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final AtomicInteger nextFileNumber = new AtomicInteger(1);
+    private static final List<Record> records = new CopyOnWriteArrayList<>();
+
+    /**
+     * True when print.target=file, i.e. print jobs go to the virtual printer.
+     */
+    public static boolean isEnabled() {
+        return TARGET_FILE.equalsIgnoreCase(AppConfig.getString(TARGET_KEY, "printer"));
+    }
+
+    public static File getDirectory() {
+        String directory = AppConfig.getString(DIRECTORY_KEY, null);
+        return directory != null ? new File(directory)
+                : new File(System.getProperty("user.home") + File.separator + "ChequePrinterData", "virtual-printer");
+    }
+
+    /**
+     * Start one printer job on the virtual printer.
+     */
+    static Session open(String jobName) throws PrinterException {
+        StreamPrintServiceFactory[] factories = StreamPrintServiceFactory.lookupStreamPrintServiceFactories(
+                DocFlavor.SERVICE_FORMATTED.PAGEABLE, OUTPUT_MIME_TYPE);
+        if (factories.length == 0) {
+            throw new PrinterException("No " + OUTPUT_MIME_TYPE + " stream print service available");
+        }
+
+        File file = null;
+        OutputStream target;
+        try {
+            if (AppConfig.getBoolean(DISCARD_KEY, false)) {
+                target = OutputStream.nullOutputStream();
+            } else {
+                File directory = getDirectory();
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Cannot create " + directory.getAbsolutePath());
+                }
+                file = new File(directory, String.format(Locale.ROOT, "print-%s-%04d.ps",
+                        LocalDateTime.now().format(fileTimeFormatter), nextFileNumber.getAndIncrement()));
+                target = new BufferedOutputStream(new FileOutputStream(file));
+            }
+        } catch (IOException e) {
+            throw new PrinterException("Virtual printer output not writable: " + e.getMessage());
+        }
+
+        CountingOutputStream output = new CountingOutputStream(target);
+        return new Session(jobName, file, output, factories[0].getPrintService(output));
+    }
+
+    /**
+     * All printer jobs completed on the virtual printer since startup (or the last clear).
+     */
+    public static List<Record> getRecords() {
+        return new ArrayList<>(records);
+    }
+
+    public static void clearRecords() {
+        records.clear();
+    }
+
+    /**
+     * One-line summary of the recorded jobs: jobs, pages, bytes, spool time and pages per second.
+     */
+    public static String summary() {
+        int pages = 0;
+        long bytes = 0;
+        long millis = 0;
+        for (Record record : records) {
+            pages += record.getPages();
+            bytes += record.getBytes();
+            millis += record.getMillis();
+        }
+        return String.format(Locale.ROOT, "%d job(s), %d page(s), %d bytes spooled in %d ms (%.1f pages/s)",
+                records.size(), pages, bytes, millis, millis > 0 ? pages * 1000.0 / millis : 0.0);
+    }
+
+    private static synchronized void appendToLog(Record record) {
+        File directory = getDirectory();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File logFile = new File(directory, LOG_FILE_NAME);
+        boolean newFile = !logFile.exists();
+        try (Writer writer = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write("finished,job,pages,bytes,millis,file" + System.lineSeparator());
+            }
+            writer.write(String.format(Locale.ROOT, "%s,\"%s\",%d,%d,%d,%s%s", record.getFinishedAt(),
+                    record.getJobName().replace("\"", "\"\""), record.getPages(), record.getBytes(), record.getMillis(),
+                    record.getFile() != null ? record.getFile().getName() : "", System.lineSeparator()));
+        } catch (IOException e) {
+            logger.warn("Failed to write virtual printer log: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * An open printer job on the virtual printer.
+     */
+    static class Session implements AutoCloseable {
+        private final String jobName;
+        private final File file;
+        private final CountingOutputStream output;
+        private final StreamPrintService printService;
+        private final long startNanos = System.nanoTime();
+        private boolean completed;
+
+        private Session(String jobName, File file, CountingOutputStream output, StreamPrintService printService) {
+            this.jobName = jobName;
+            this.file = file;
+            this.output = output;
+            this.printService = printService;
+        }
+
+        PrintService getPrintService() {
+            return printService;
+        }
+
+        /**
+         * Record the job once the printer job returned successfully.
+         */
+        Record complete(int pages) {
+            closeOutput();
+            completed = true;
+            Record record = new Record(jobName, file, pages, output.getCount(), (System.nanoTime() - startNanos) / 1_000_000);
+            records.add(record);
+            appendToLog(record);
+            logger.info("Virtual printer: {}", record);
+            return record;
+        }
+
+        /**
+         * Release the output; the file of a job that did not complete is deleted.
+         */
+        @Override
+        public void close() {
+            if (completed) {
+                return;
+            }
+            closeOutput();
+            if (file != null && file.exists() && !file.delete()) {
+                logger.warn("Could not delete incomplete virtual print file {}", file.getAbsolutePath());
+            }
+        }
+
+        private void closeOutput() {
+            printService.dispose();
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close virtual print file: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pages, bytes and spool time of one completed printer job.
+     */
+    public static class Record {
+        private final String jobName;
+        private final File file;
+        private final int pages;
+        private final long bytes;
+        private final long millis;
+        private final LocalDateTime finishedAt = LocalDateTime.now();
+
+        Record(String jobName, File file, int pages, long bytes, long millis) {
+            this.jobName = jobName;
+            this.file = file;
+            this.pages = pages;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        public String getJobName() { return jobName; }
+        public File getFile() { return file; }
+        public int getPages() { return pages; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+
+        @Override
+        public String toString() {
+            return jobName + ": " + pages + " page(s), " + bytes + " bytes in " + millis + " ms";
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
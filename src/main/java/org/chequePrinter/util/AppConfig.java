@@ -0,0 +1,78 @@
+package org.chequePrinter.util;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Application settings loaded from config.properties on the classpath.
+ * Any key can be overridden with a JVM system property of the same name (-Dkey=value).
+ */
+public class AppConfig {
+
+    private static final Logger logger = LoggerUtil.getLogger(AppConfig.class);
+    private static final String CONFIG_RESOURCE = "/config.properties";
+    private static final Properties properties = new Properties();
+
+    static {
+        try (InputStream stream = AppConfig.class.getResourceAsStream(CONFIG_RESOURCE)) {
+            if (stream != null) {
+                properties.load(stream);
+            } else {
+                logger.warn("{} not found on classpath, using defaults", CONFIG_RESOURCE);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read {}, using defaults: {}", CONFIG_RESOURCE, e.getMessage());
+        }
+    }
+
+    /**
+     * Get a string setting, falling back to the given default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Get an integer setting, falling back to the given default when missing or malformed
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid integer for setting {}: '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a long setting, falling back to the given default when missing or malformed
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number for setting {}: '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a boolean setting, falling back to the given default when missing
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
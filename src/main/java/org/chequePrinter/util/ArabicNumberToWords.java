@@ -1,7 +1,14 @@
 package org.chequePrinter.util;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ArabicNumberToWords {
 
+    private static final String CACHE_SIZE_KEY = "amountWords.cacheSize";
+
     private static final String[] ones = {
             "", "واحد", "اثنان", "ثلاثة", "أربعة", "خمسة", "ستة", "سبعة", "ثمانية", "تسعة",
             "عشرة", "أحد عشر", "اثنا عشر", "ثلاثة عشر", "أربعة عشر", "خمسة عشر", "ستة عشر", "سبعة عشر", "ثمانية عشر", "تسعة عشر"
@@ -15,100 +22,199 @@ public class ArabicNumberToWords {
             "", "مائة", "مئتان", "ثلاثمائة", "أربعمائة", "خمسمائة", "ستمائة", "سبعمائة", "ثمانمائة", "تسعمائة"
     };
 
+    private static final String AND = " و ";
+
+    // Whole pounds with more digits do not fit in a long of piasters
+    private static final int MAX_INTEGER_DIGITS = 17;
+
+    // Scales from the largest down: value, singular, dual, plural (used for 3 to 10)
+    private static final long[] scaleValues = {
+            1_000_000_000_000_000_000L, 1_000_000_000_000_000L, 1_000_000_000_000L, 1_000_000_000L, 1_000_000L, 1000L};
+    private static final String[][] scaleWords = {
+            {"كوينتليون", "كوينتليونان", "كوينتليونات"},
+            {"كوادريليون", "كوادريليونان", "كوادريليونات"},
+            {"تريليون", "تريليونان", "تريليونات"},
+            {"مليار", "ملياران", "مليارات"},
+            {"مليون", "مليونان", "ملايين"},
+            {"ألف", "ألفان", "آلاف"}
+    };
+
+    // Words for every three-digit group 0..999, built once
+    private static final String[] groupWords = buildGroupWords();
+
+    // Recently converted amounts in piasters; installment plans repeat the same few amounts
+    private static final int cacheSize = Math.max(0, AppConfig.getInt(CACHE_SIZE_KEY, 1024));
+    private static final Map<Long, String> cache = new LinkedHashMap<Long, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    private static String[] buildGroupWords() {
+        String[] words = new String[1000];
+        for (int n = 0; n < 1000; n++) {
+            if (n < 20) {
+                words[n] = ones[n];
+            } else if (n < 100) {
+                words[n] = n % 10 != 0 ? ones[n % 10] + AND + tens[n / 10] : tens[n / 10];
+            } else {
+                words[n] = n % 100 != 0 ? hundreds[n / 100] + AND + words[n % 100] : hundreds[n / 100];
+            }
+        }
+        return words;
+    }
+
     public static String convert(double number) {
         if (number == 0) {
             return "صفر";
         }
 
+        StringBuilder result = new StringBuilder(96);
         long longPart = (long) number;
-        String result = convert(longPart);
+        appendWords(longPart, result);
 
         long decimalPart = Math.round((number - longPart) * 100);
         if (decimalPart > 0) {
             // For decimal part, we generally use 'قرش' (piaster) or 'هللة' (halala)
             // The current implementation uses 'قرش' which is common for currency.
             // No complex gender/plural rules applied here for simplicity, as it's a fractional part.
-            result += " و " + convert(decimalPart) + " قرش";
+            result.append(AND);
+            appendWords(decimalPart, result);
+            result.append(" قرش");
         }
 
-        return result;
+        return result.toString();
     }
 
-    public static String convert(long number) {
-        if (number == 0) {
-            return "صفر";
+    /**
+     * Exact conversion of an amount in piasters (1/100 pound), e.g. 125050 gives the
+     * words for 1250 and " و خمسون قرش", in the same form as convert(double).
+     */
+    public static String convertPiasters(long piasters) {
+        if (piasters < 0) {
+            throw new IllegalArgumentException("Amount must not be negative: " + piasters);
         }
-
-        String result = "";
-
-        if (number < 20) {
-            result = ones[(int) number];
-        } else if (number < 100) {
-            result = tens[(int) (number / 10)];
-            if (number % 10 != 0) {
-                result = ones[(int) (number % 10)] + " و " + result;
+        synchronized (cache) {
+            String cached = cache.get(piasters);
+            if (cached != null) {
+                return cached;
             }
-        } else if (number < 1000) {
-            result = hundreds[(int) (number / 100)];
-            if (number % 100 != 0) {
-                result += " و " + convert(number % 100);
-            }
-        } else if (number < 1_000_000) {
-            long thousands = number / 1000;
-            String thousandWord;
-            if (thousands == 1) {
-                thousandWord = "ألف";
-            } else if (thousands == 2) {
-                thousandWord = "ألفان";
-            } else if (thousands >= 3 && thousands <= 10) {
-                thousandWord = convert(thousands) + " آلاف"; // e.g., ثلاثة آلاف
-            } else {
-                thousandWord = convert(thousands) + " ألف"; // e.g., عشرون ألف, مائة ألف
-            }
-            result = thousandWord;
-            if (number % 1000 != 0) {
-                result += " و " + convert(number % 1000);
+        }
+
+        String words;
+        if (piasters == 0) {
+            words = "صفر";
+        } else {
+            StringBuilder result = new StringBuilder(96);
+            appendWords(piasters / 100, result);
+            long decimalPart = piasters % 100;
+            if (decimalPart > 0) {
+                result.append(AND);
+                appendWords(decimalPart, result);
+                result.append(" قرش");
             }
-        } else if (number < 1_000_000_000) {
-            long millions = number / 1_000_000;
-            String millionWord;
-            if (millions == 1) {
-                millionWord = "مليون";
-            } else if (millions == 2) {
-                millionWord = "مليونان";
-            } else if (millions >= 3 && millions <= 10) {
-                millionWord = convert(millions) + " ملايين";
-            } else {
-                millionWord = convert(millions) + " مليون";
+            words = result.toString();
+        }
+
+        if (cacheSize > 0) {
+            synchronized (cache) {
+                cache.put(piasters, words);
             }
-            result = millionWord;
-            if (number % 1_000_000 != 0) {
-                result += " و " + convert(number % 1_000_000);
+        }
+        return words;
+    }
+
+    /**
+     * Exact conversion of an amount in pounds, rounded half up to whole piasters.
+     */
+    public static String convert(BigDecimal amount) {
+        try {
+            return convertPiasters(toPiasters(amount));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount, e);
+        }
+    }
+
+    /**
+     * An amount in pounds as whole piasters, rounded half up.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toPiasters(BigDecimal amount) {
+        // Digits before the point; checked first, as rescaling a value like 1e99999999 takes minutes
+        int integerDigits = amount.precision() - amount.scale();
+        if (integerDigits > MAX_INTEGER_DIGITS) {
+            throw new ArithmeticException("Too many digits");
+        }
+        if (integerDigits < -2) {
+            // Below 0.001, rounds to zero
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parse an amount typed by the user (e.g. "1250.50") and convert it exactly.
+     *
+     * @throws NumberFormatException    if the text is not a number
+     * @throws IllegalArgumentException if the amount is negative or too large
+     */
+    public static String convert(String amount) {
+        return convert(new BigDecimal(amount.trim()));
+    }
+
+    public static String convert(long number) {
+        StringBuilder result = new StringBuilder(64);
+        appendWords(number, result);
+        return result.toString();
+    }
+
+    /**
+     * Append the words for a number to the given builder, without intermediate strings.
+     */
+    public static void appendWords(long number, StringBuilder out) {
+        if (number == 0) {
+            out.append("صفر");
+            return;
+        }
+        if (number < 20) {
+            // Same lookup as for small numbers, also for negative input
+            out.append(ones[(int) number]);
+            return;
+        }
+        boolean first = true;
+        long rest = number;
+        for (int i = 0; i < scaleValues.length; i++) {
+            int count = (int) (rest / scaleValues[i]); // At most 999 (9 for quintillions)
+            if (count == 0) {
+                continue;
             }
-        } else if (number < 1_000_000_000_000L) { // Using L for long literal
-            long billions = number / 1_000_000_000L;
-            String billionWord;
-            if (billions == 1) {
-                billionWord = "مليار";
-            } else if (billions == 2) {
-                billionWord = "ملياران";
-            } else if (billions >= 3 && billions <= 10) {
-                billionWord = convert(billions) + " مليارات";
-            } else {
-                billionWord = convert(billions) + " مليار";
+            rest %= scaleValues[i];
+            if (!first) {
+                out.append(AND);
             }
-            result = billionWord;
-            if (number % 1_000_000_000L != 0) {
-                result += " و " + convert(number % 1_000_000_000L);
+            first = false;
+            appendScale(count, scaleWords[i], out);
+        }
+        if (rest != 0) {
+            if (!first) {
+                out.append(AND);
             }
-        } else {
-            // For numbers larger than billions, we can extend this pattern
-            // For simplicity, we'll just return a generic message or handle up to trillions if needed.
-            // This implementation stops at billions for now.
-            return "عدد كبير جدا";
+            out.append(groupWords[(int) rest]);
         }
+    }
 
-        return result.trim();
+    /**
+     * e.g. "ألف", "ألفان", "ثلاثة آلاف", "عشرون ألف"
+     */
+    private static void appendScale(int count, String[] words, StringBuilder out) {
+        if (count == 1) {
+            out.append(words[0]);
+        } else if (count == 2) {
+            out.append(words[1]);
+        } else {
+            out.append(groupWords[count]).append(' ').append(count <= 10 ? words[2] : words[0]);
+        }
     }
 }
-
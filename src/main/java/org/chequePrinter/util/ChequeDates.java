@@ -0,0 +1,110 @@
+package org.chequePrinter.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsing and formatting of cheque dates.
+ *
+ * Text is parsed once where it enters the application (database, CSV, typed input) by a
+ * single scanner that accepts every format the application has written: yyyy-MM-dd,
+ * yyyy/MM/dd, dd/MM/yyyy and dd-MM-yyyy. Characters other than digits, '-' and '/' are
+ * ignored, as the old regex clean-up did. Formatters for the template date formats are
+ * built once and shared.
+ */
+public class ChequeDates {
+
+    /** Format used in the database and for ISO text, e.g. 2024-03-15 */
+    public static final String ISO_FORMAT = "YYYY-MM-DD";
+    /** Format used in the tables, e.g. 15/03/2024 */
+    public static final String DISPLAY_FORMAT = "DD/MM/YYYY";
+
+    private static final DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Map<String, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+
+    static {
+        formatters.put(ISO_FORMAT, DateTimeFormatter.ISO_LOCAL_DATE);
+        formatters.put(DISPLAY_FORMAT, displayFormatter);
+        formatters.put("YYYY/MM/DD", DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+        formatters.put("DD MM YYYY", DateTimeFormatter.ofPattern("dd MM yyyy"));
+    }
+
+    /**
+     * Parse a date in any of the supported formats.
+     *
+     * @return the date, or null when the text is empty or not a valid date
+     */
+    public static LocalDate parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        // Up to three digit groups and the separator between them
+        int[] values = new int[3];
+        int[] digits = new int[3];
+        int group = 0;
+        char separator = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits[group] == 4) {
+                    return null;
+                }
+                values[group] = values[group] * 10 + (c - '0');
+                digits[group]++;
+            } else if (c == '-' || c == '/') {
+                if (digits[group] == 0 || group == 2 || (separator != 0 && c != separator)) {
+                    return null;
+                }
+                separator = c;
+                group++;
+            }
+        }
+        if (group != 2 || digits[1] != 2) {
+            return null;
+        }
+
+        try {
+            if (digits[0] == 4 && digits[2] == 2) {
+                return LocalDate.of(values[0], values[1], values[2]);
+            }
+            if (digits[0] == 2 && digits[2] == 4) {
+                return LocalDate.of(values[2], values[1], values[0]);
+            }
+        } catch (DateTimeException e) {
+            // Out of range day or month
+        }
+        return null;
+    }
+
+    /**
+     * Parse a date, falling back to today when the text is empty or cannot be parsed.
+     */
+    public static LocalDate parseOrToday(String text) {
+        LocalDate date = parse(text);
+        return date != null ? date : LocalDate.now();
+    }
+
+    /**
+     * Format a date for a template date format such as "DD/MM/YYYY" or "DD MM YYYY".
+     * No format gives ISO text; unknown formats fall back to dd/MM/yyyy.
+     */
+    public static String format(LocalDate date, String templateDateFormat) {
+        if (date == null) {
+            return "";
+        }
+        DateTimeFormatter formatter = templateDateFormat == null
+                ? DateTimeFormatter.ISO_LOCAL_DATE
+                : formatters.getOrDefault(templateDateFormat, displayFormatter);
+        return date.format(formatter);
+    }
+
+    /**
+     * The table display text, dd/MM/yyyy.
+     */
+    public static String toDisplay(LocalDate date) {
+        return format(date, DISPLAY_FORMAT);
+    }
+}
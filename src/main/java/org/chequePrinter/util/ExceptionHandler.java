@@ -28,7 +28,7 @@ public class ExceptionHandler {
         LoggerUtil.logException(logger, context, e);
         
         // Show user-friendly message
-        Platform.runLater(() -> showErrorDialog("Error", userMessage, e));
+        runOnFxThread(() -> showErrorDialog("Error", userMessage, e));
     }
     
     /**
@@ -137,9 +137,21 @@ public class ExceptionHandler {
      */
     public static void handleValidationException(Logger logger, String field, String message) {
         logger.warn("Validation failed for field '{}': {}", field, message);
-        Platform.runLater(() -> showWarningDialog("Validation Error", message));
+        runOnFxThread(() -> showWarningDialog("Validation Error", message));
     }
     
+    /**
+     * Show a dialog on the JavaFX thread. In headless batch mode the toolkit is not running,
+     * so the dialog is skipped and the already logged message is all that is reported.
+     */
+    private static void runOnFxThread(Runnable dialog) {
+        try {
+            Platform.runLater(dialog);
+        } catch (IllegalStateException e) {
+            // JavaFX toolkit not initialized
+        }
+    }
+
     /**
      * Show error dialog with exception details
      */
@@ -216,7 +228,7 @@ public class ExceptionHandler {
             LoggerUtil.logException(logger, "Uncaught exception in thread: " + thread.getName(), 
                                   new RuntimeException(exception));
             
-            Platform.runLater(() -> {
+            runOnFxThread(() -> {
                 showErrorDialog("Critical Error", 
                               "A critical error occurred in the application. Please restart the application.", 
                               new RuntimeException(exception));
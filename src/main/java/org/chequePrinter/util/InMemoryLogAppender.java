@@ -19,6 +19,9 @@ public class InMemoryLogAppender extends AppenderBase<ILoggingEvent> {
     private static final ConcurrentLinkedQueue<LogEntry> logQueue = new ConcurrentLinkedQueue<>();
     private static final ObservableList<LogEntry> observableLogList = FXCollections.observableArrayList();
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    // Set once the JavaFX toolkit is running; until then (and in headless batch mode) events are only queued
+    private static volatile boolean fxStarted;
     
     @Override
     protected void append(ILoggingEvent event) {
@@ -39,6 +42,9 @@ public class InMemoryLogAppender extends AppenderBase<ILoggingEvent> {
         }
         
         // Update observable list on JavaFX thread
+        if (!fxStarted) {
+            return;
+        }
         if (Platform.isFxApplicationThread()) {
             updateObservableList();
         } else {
@@ -51,12 +57,26 @@ public class InMemoryLogAppender extends AppenderBase<ILoggingEvent> {
         observableLogList.addAll(logQueue);
     }
     
+    /**
+     * Called from App.start once the JavaFX toolkit is up, so queued entries can be shown in the UI
+     */
+    public static void onFxStarted() {
+        fxStarted = true;
+        Platform.runLater(() -> {
+            observableLogList.clear();
+            observableLogList.addAll(logQueue);
+        });
+    }
+
     public static ObservableList<LogEntry> getLogEntries() {
         return observableLogList;
     }
     
     public static void clearLogs() {
         logQueue.clear();
+        if (!fxStarted) {
+            return;
+        }
         if (Platform.isFxApplicationThread()) {
             observableLogList.clear();
         } else {
@@ -0,0 +1,54 @@
+package org.chequePrinter.util;
+
+/**
+ * Normalization of names and numbers for searching: case and Arabic spelling variants are
+ * folded so that a query matches however the record was typed.
+ */
+public class SearchText {
+
+    /**
+     * Lower case, runs of whitespace collapsed to one space and trimmed, Arabic diacritics
+     * and tatweel removed, alef forms folded to ا, alef maksura to ي and teh marbuta to ه.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            // Harakat, superscript alef and tatweel
+            if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670' || c == '\u0640') {
+                continue;
+            }
+            switch (c) {
+                case 'أ':
+                case 'إ':
+                case 'آ':
+                case 'ٱ':
+                    c = 'ا';
+                    break;
+                case 'ى':
+                    c = 'ي';
+                    break;
+                case 'ة':
+                    c = 'ه';
+                    break;
+                default:
+                    c = Character.toLowerCase(c);
+                    break;
+            }
+            if (pendingSpace && normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            pendingSpace = false;
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+}
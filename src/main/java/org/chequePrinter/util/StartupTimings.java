@@ -0,0 +1,78 @@
+package org.chequePrinter.util;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Per-phase timing of the application startup. Phases may run on any thread; each one
+ * records its duration and when it started and ended relative to begin(). The whole
+ * breakdown is logged once, when markInteractive() is called (the cheque table is filled),
+ * so time-to-interactive can be tracked from the logs. Phases that end after that are
+ * logged on their own as they finish; a phase that throws is recorded as FAILED.
+ */
+public class StartupTimings {
+
+    private static final Logger logger = LoggerUtil.getLogger(StartupTimings.class);
+
+    private static final List<String> phases = new ArrayList<>();
+    private static volatile long startNanos = System.nanoTime();
+    private static boolean reported;
+
+    /**
+     * Start the clock; called first thing in App.start.
+     */
+    public static void begin() {
+        startNanos = System.nanoTime();
+    }
+
+    public static void run(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            T result = work.get();
+            completed = true;
+            return result;
+        } finally {
+            long end = System.nanoTime();
+            String timing = String.format("%s%s %d ms (+%d..+%d ms, %s)", phase, completed ? "" : " FAILED",
+                    millis(end - start), millis(start - startNanos), millis(end - startNanos),
+                    Thread.currentThread().getName());
+            synchronized (phases) {
+                if (reported) {
+                    logger.info("Startup phase finished after interactive: {}", timing);
+                } else {
+                    logger.debug("Startup phase {}", timing);
+                    phases.add(timing);
+                }
+            }
+        }
+    }
+
+    /**
+     * The application is ready for use: log the breakdown (only the first time).
+     */
+    public static void markInteractive() {
+        long interactive = millis(System.nanoTime() - startNanos);
+        synchronized (phases) {
+            if (reported) {
+                return;
+            }
+            reported = true;
+            logger.info("Startup interactive after {} ms: {}", interactive, String.join("; ", phases));
+        }
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
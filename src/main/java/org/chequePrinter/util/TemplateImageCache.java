@@ -0,0 +1,102 @@
+package org.chequePrinter.util;
+
+import javafx.scene.image.Image;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Template images for the preview, decoded once per resource path at preview resolution
+ * (at most preview.image.maxWidth pixels wide) instead of at the full scan size.
+ *
+ * Images are held through soft references, so the JVM can drop the ones not on screen
+ * when memory runs low; they are then decoded again on next use. preload decodes images
+ * on a background thread so that switching templates does not wait for the decoder.
+ */
+public class TemplateImageCache {
+
+    private static final Logger logger = LoggerUtil.getLogger(TemplateImageCache.class);
+
+    static final String MAX_WIDTH_KEY = "preview.image.maxWidth";
+
+    private static final Map<String, SoftReference<Image>> images = new ConcurrentHashMap<>();
+
+    private static final ExecutorService preloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "template-image-preload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * The image for a resource path such as "/templates/NBE.jpg", decoding it if it is not
+     * cached. Returns null when the resource does not exist; an image that failed to decode
+     * is returned (isError() is true) but not cached.
+     */
+    public static Image get(String imagePath) {
+        if (imagePath == null) {
+            return null;
+        }
+        Image cached = cachedImage(imagePath);
+        if (cached != null) {
+            return cached;
+        }
+        // Decoded outside the map, so other paths are not blocked meanwhile
+        Image image = load(imagePath);
+        if (image == null || image.isError()) {
+            return image;
+        }
+        Image[] result = {image};
+        // If another thread decoded the same path first, keep its image so all callers share one
+        images.compute(imagePath, (path, reference) -> {
+            Image current = reference != null ? reference.get() : null;
+            if (current != null) {
+                result[0] = current;
+                return reference;
+            }
+            return new SoftReference<>(image);
+        });
+        return result[0];
+    }
+
+    private static Image cachedImage(String imagePath) {
+        SoftReference<Image> reference = images.get(imagePath);
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * Decode the images that are not cached yet on the background thread.
+     */
+    public static void preload(Collection<String> imagePaths) {
+        Collection<String> paths = new ArrayList<>(imagePaths);
+        preloader.execute(() -> {
+            long start = System.currentTimeMillis();
+            for (String path : paths) {
+                get(path);
+            }
+            logger.debug("Preloaded {} template images in {} ms", paths.size(), System.currentTimeMillis() - start);
+        });
+    }
+
+    private static Image load(String imagePath) {
+        try (InputStream imageStream = TemplateImageCache.class.getResourceAsStream(imagePath)) {
+            if (imageStream == null) {
+                return null;
+            }
+            int maxWidth = AppConfig.getInt(MAX_WIDTH_KEY, 1200);
+            // Decoded straight to the preview size (aspect ratio kept, smooth scaling)
+            return maxWidth > 0 ? new Image(imageStream, maxWidth, 0, true, true) : new Image(imageStream);
+        } catch (IOException e) {
+            logger.warn("Could not read template image {}: {}", imagePath, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.chequePrinter.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amount to words, the previous implementation against the table-based one, over a fixed
+ * set of cheque-sized amounts. Run with mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=ArabicNumberToWords.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArabicNumberToWordsBenchmark {
+
+    private static final int AMOUNT_COUNT = 1024;
+
+    private final double[] amounts = new double[AMOUNT_COUNT];
+    private final StringBuilder builder = new StringBuilder(96);
+    private int next;
+
+    @Setup
+    public void createAmounts() {
+        Random random = new Random(39);
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            amounts[i] = random.nextInt(100_000_000) / 100.0;
+        }
+    }
+
+    private double nextAmount() {
+        next = (next + 1) & (AMOUNT_COUNT - 1);
+        return amounts[next];
+    }
+
+    @Benchmark
+    public String legacyConvertDouble() {
+        return LegacyArabicNumberToWords.convert(nextAmount());
+    }
+
+    @Benchmark
+    public String convertDouble() {
+        return ArabicNumberToWords.convert(nextAmount());
+    }
+
+    @Benchmark
+    public String legacyConvertLong() {
+        return LegacyArabicNumberToWords.convert((long) nextAmount());
+    }
+
+    @Benchmark
+    public String convertLong() {
+        return ArabicNumberToWords.convert((long) nextAmount());
+    }
+
+    @Benchmark
+    public int appendWordsReusingBuilder() {
+        builder.setLength(0);
+        ArabicNumberToWords.appendWords((long) nextAmount(), builder);
+        return builder.length();
+    }
+}
@@ -0,0 +1,99 @@
+package org.chequePrinter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The table-based conversion gives exactly the words of the previous implementation
+ * (LegacyArabicNumberToWords) for every amount that implementation handled, i.e. below
+ * 10^12. Larger amounts were "عدد كبير جدا" there and are spelled out now.
+ */
+class ArabicNumberToWordsTest {
+
+    private static final long LEGACY_LIMIT = 1_000_000_000_000L;
+
+    @Test
+    void everyNumberUpToTwoMillion() {
+        for (long n = -1000; n <= 2_000_000; n++) {
+            assertSameLong(n);
+        }
+    }
+
+    @Test
+    void everyScaleCountWithAndWithoutRemainder() {
+        long[] scales = {1000L, 1_000_000L, 1_000_000_000L};
+        long[] remainders = {0, 1, 2, 10, 11, 19, 20, 21, 99, 100, 101, 999};
+        for (long scale : scales) {
+            for (long count = 1; count < 1000; count++) {
+                for (long remainder : remainders) {
+                    if (remainder < scale) {
+                        assertSameLong(count * scale + remainder);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomNumbersBelowTheLegacyLimit() {
+        Random random = new Random(39);
+        for (int i = 0; i < 1_000_000; i++) {
+            assertSameLong((random.nextLong() >>> 1) % LEGACY_LIMIT);
+        }
+        assertSameLong(LEGACY_LIMIT - 1);
+    }
+
+    @Test
+    void everyCentAmountUpToTwentyThousand() {
+        for (long cents = 0; cents <= 2_000_000; cents++) {
+            assertSameDouble(cents / 100.0);
+        }
+    }
+
+    @Test
+    void randomAndSpecialDoubles() {
+        Random random = new Random(39);
+        for (int i = 0; i < 500_000; i++) {
+            assertSameDouble(random.nextDouble() * LEGACY_LIMIT);
+        }
+        for (double special : new double[] {Double.NaN, -0.0, 0.004, 0.005, 0.995, 0.999, -0.5, -1.25, -20.0}) {
+            assertSameDouble(special);
+        }
+    }
+
+    private static void assertSameLong(long number) {
+        String expected;
+        try {
+            expected = LegacyArabicNumberToWords.convert(number);
+        } catch (RuntimeException legacyError) {
+            assertThrowsSame(legacyError, () -> ArabicNumberToWords.convert(number), String.valueOf(number));
+            return;
+        }
+        assertEquals(expected, ArabicNumberToWords.convert(number), () -> "convert(long) " + number);
+    }
+
+    private static void assertSameDouble(double number) {
+        String expected;
+        try {
+            expected = LegacyArabicNumberToWords.convert(number);
+        } catch (RuntimeException legacyError) {
+            assertThrowsSame(legacyError, () -> ArabicNumberToWords.convert(number), String.valueOf(number));
+            return;
+        }
+        assertEquals(expected, ArabicNumberToWords.convert(number), () -> "convert(double) " + number);
+    }
+
+    private static void assertThrowsSame(RuntimeException legacyError, Runnable conversion, String input) {
+        try {
+            conversion.run();
+        } catch (RuntimeException error) {
+            assertEquals(legacyError.getClass(), error.getClass(), () -> "exception for " + input);
+            return;
+        }
+        fail("Legacy conversion of " + input + " threw " + legacyError + ", the new one did not");
+    }
+}